@@ -2,22 +2,32 @@ package com.example.gateway.booking.controller;
 
 import com.example.gateway.booking.dto.BookingCreationRequestDto;
 import com.example.gateway.booking.dto.BookingState;
+import com.example.gateway.booking.dto.BookingStatusUpdateDto;
 import com.example.gateway.booking.service.BookingRemoteCommand;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.util.List;
 
 import static com.example.gateway.utills.UserHttpHeaders.USER_ID;
 
 @RestController
 @Slf4j
+@Validated
 @RequestMapping("/bookings")
 public class BookingController {
+    private static final int MAX_BATCH_SIZE = 500;
 
     private final BookingRemoteCommand command;
 
@@ -33,6 +43,14 @@ public class BookingController {
         return command.addBooking(userId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> addBookings(@RequestHeader(USER_ID) Long userId,
+                                              @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                              List<@Valid BookingCreationRequestDto> bookingDtos) {
+        log.info("Received a POST request for the endpoint /bookings/batch with userId_{}", userId);
+        return command.addBookings(userId, bookingDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> updateBookingStatus(@RequestHeader(USER_ID) Long userId,
                                                       @PathVariable Long bookingId,
@@ -41,6 +59,26 @@ public class BookingController {
         return command.updateBookingStatus(userId, bookingId, approved);
     }
 
+    @PatchMapping("/batch")
+    public ResponseEntity<Object> updateBookingStatuses(@RequestHeader(USER_ID) Long userId,
+                                                        @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                                        List<@Valid BookingStatusUpdateDto> updates) {
+        log.info("Received a PATCH request for the endpoint /bookings/batch with userId_{}", userId);
+        return command.updateBookingStatuses(userId, updates);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Object> getStatsByBookerId(@RequestHeader(USER_ID) Long userId) {
+        log.info("Received a GET request for the endpoint /bookings/stats with userId_{}", userId);
+        return command.getStatsByBookerId(userId);
+    }
+
+    @GetMapping("/owner/stats")
+    public ResponseEntity<Object> getStatsByBookerItems(@RequestHeader(USER_ID) Long userId) {
+        log.info("Received a GET request for the endpoint /bookings/owner/stats with userId_{}", userId);
+        return command.getStatsByBookerItems(userId);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getBooking(@RequestHeader(USER_ID) Long userId,
                                              @PathVariable Long bookingId) {
@@ -52,21 +90,44 @@ public class BookingController {
     public ResponseEntity<Object> getAllByBookerId(@RequestHeader(USER_ID) Long userId,
                                                    @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                                    @PositiveOrZero @RequestParam(required = false) Integer from,
-                                                   @Positive @RequestParam(required = false) Integer size) {
+                                                   @Positive @RequestParam(required = false) Integer size,
+                                                   @RequestParam(required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
         log.info("Received a GET request for the endpoint /bookings/ with userId_{}", userId);
-        return command.getAllByBookerId(userId, String.valueOf(state), from, size);
+        return command.getAllByBookerId(userId, String.valueOf(state), from, size, cursor);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllByBookerId(@RequestHeader(USER_ID) Long userId,
+                                    @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                    HttpServletResponse response) throws IOException {
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+        log.info("Received a GET request for the endpoint /bookings/ with userId_{} with NDJSON streaming", userId);
+        command.streamAllByBookerId(userId, String.valueOf(state), response);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> getOwnerId(@RequestHeader(USER_ID) Long userId,
                                              @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                              @PositiveOrZero @RequestParam(required = false) Integer from,
-                                             @Positive @RequestParam(required = false) Integer size) {
+                                             @Positive @RequestParam(required = false) Integer size,
+                                             @RequestParam(required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
         log.info("Received a GET request for the endpoint /bookings/ with userId_{}", userId);
-        return command.getAllByBookerItems(userId, String.valueOf(state), from, size);
+        return command.getAllByBookerItems(userId, String.valueOf(state), from, size, cursor);
+    }
+
+    @GetMapping(value = "/owner", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllByBookerItems(@RequestHeader(USER_ID) Long userId,
+                                       @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                       HttpServletResponse response) throws IOException {
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+        log.info("Received a GET request for the endpoint /bookings/owner with userId_{} with NDJSON streaming",
+                userId);
+        command.streamAllByBookerItems(userId, String.valueOf(state), response);
     }
 }
@@ -0,0 +1,20 @@
+package com.example.gateway.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingStatusUpdateDto {
+    @NotNull
+    private Long bookingId;
+
+    @NotNull
+    private Boolean approved;
+}
@@ -1,18 +1,36 @@
 package com.example.gateway.booking.service;
 
 import com.example.gateway.booking.dto.BookingCreationRequestDto;
+import com.example.gateway.booking.dto.BookingStatusUpdateDto;
 import org.springframework.http.ResponseEntity;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+
 public interface BookingRemoteCommand {
 
     ResponseEntity<Object> addBooking(Long userId, BookingCreationRequestDto bookingDto);
 
+    ResponseEntity<Object> addBookings(Long userId, List<BookingCreationRequestDto> bookingDtos);
+
     ResponseEntity<Object> updateBookingStatus(Long userId, Long bookingId, Boolean approved);
 
+    ResponseEntity<Object> updateBookingStatuses(Long userId, List<BookingStatusUpdateDto> updates);
+
     ResponseEntity<Object> getBooking(Long userId, Long bookingId);
 
-    ResponseEntity<Object> getAllByBookerId(Long bookerId, String state, Integer from, Integer size);
+    ResponseEntity<Object> getAllByBookerId(Long bookerId, String state, Integer from, Integer size, String cursor);
+
+    ResponseEntity<Object> getAllByBookerItems(Long ownerId, String state, Integer from, Integer size,
+                                               String cursor);
+
+    ResponseEntity<Object> getStatsByBookerId(Long bookerId);
+
+    ResponseEntity<Object> getStatsByBookerItems(Long ownerId);
+
+    void streamAllByBookerId(Long bookerId, String state, HttpServletResponse response) throws IOException;
 
-    ResponseEntity<Object> getAllByBookerItems(Long ownerId, String state, Integer from, Integer size);
+    void streamAllByBookerItems(Long ownerId, String state, HttpServletResponse response) throws IOException;
 
 }
@@ -1,6 +1,7 @@
 package com.example.gateway.booking.service;
 
 import com.example.gateway.booking.dto.BookingCreationRequestDto;
+import com.example.gateway.booking.dto.BookingStatusUpdateDto;
 import com.example.gateway.client.BaseClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
@@ -9,6 +10,10 @@ import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static com.example.gateway.utills.RestEndpoints.BOOKING_API_PREFIX;
@@ -31,50 +36,76 @@ public class BookingRemoteCommandImpl extends BaseClient implements BookingRemot
         return post("", userId, bookingDto);
     }
 
+    @Override
+    public ResponseEntity<Object> addBookings(Long userId, List<BookingCreationRequestDto> bookingDtos) {
+        return post("/batch", userId, bookingDtos);
+    }
+
     @Override
     public ResponseEntity<Object> updateBookingStatus(Long userId, Long bookingId, Boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
+    @Override
+    public ResponseEntity<Object> updateBookingStatuses(Long userId, List<BookingStatusUpdateDto> updates) {
+        return patch("/batch", userId, updates);
+    }
+
     @Override
     public ResponseEntity<Object> getBooking(Long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
     @Override
-    public ResponseEntity<Object> getAllByBookerId(Long bookerId, String state, Integer from, Integer size) {
-        Map<String, Object> parameters;
-        if (from != null && size != null) {
-            parameters = Map.of(
-                    "state", state,
-                    "from", from,
-                    "size", size
-            );
-            return get("?state={state}&from={from}&size={size}", bookerId, parameters);
-        } else {
-            parameters = Map.of(
-                    "state", state
-            );
-            return get("?state={state}", bookerId, parameters);
-        }
+    public ResponseEntity<Object> getAllByBookerId(Long bookerId, String state, Integer from, Integer size,
+                                                   String cursor) {
+        return getBookings("", bookerId, state, from, size, cursor);
     }
 
     @Override
-    public ResponseEntity<Object> getAllByBookerItems(Long ownerId, String state, Integer from, Integer size) {
-        Map<String, Object> parameters;
-        if (from != null && size != null) {
-            parameters = Map.of(
-                    "state", state,
-                    "from", from,
-                    "size", size
-            );
-            return get("/owner?state={state}&from={from}&size={size}", ownerId, parameters);
-        } else {
-            parameters = Map.of(
-                    "state", state
-            );
-            return get("/owner?state={state}", ownerId, parameters);
+    public ResponseEntity<Object> getAllByBookerItems(Long ownerId, String state, Integer from, Integer size,
+                                                      String cursor) {
+        return getBookings("/owner", ownerId, state, from, size, cursor);
+    }
+
+    @Override
+    public ResponseEntity<Object> getStatsByBookerId(Long bookerId) {
+        return get("/stats", bookerId);
+    }
+
+    @Override
+    public ResponseEntity<Object> getStatsByBookerItems(Long ownerId) {
+        return get("/owner/stats", ownerId);
+    }
+
+    @Override
+    public void streamAllByBookerId(Long bookerId, String state, HttpServletResponse response) throws IOException {
+        stream("?state={state}", bookerId, Map.of("state", state), response);
+    }
+
+    @Override
+    public void streamAllByBookerItems(Long ownerId, String state, HttpServletResponse response) throws IOException {
+        stream("/owner?state={state}", ownerId, Map.of("state", state), response);
+    }
+
+    private ResponseEntity<Object> getBookings(String path, Long userId, String state, Integer from, Integer size,
+                                               String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder query = new StringBuilder(path).append("?state={state}");
+        parameters.put("state", state);
+        if (cursor != null) {
+            query.append("&cursor={cursor}");
+            parameters.put("cursor", cursor);
+            if (size != null) {
+                query.append("&size={size}");
+                parameters.put("size", size);
+            }
+        } else if (from != null && size != null) {
+            query.append("&from={from}&size={size}");
+            parameters.put("from", from);
+            parameters.put("size", size);
         }
+        return get(query.toString(), userId, parameters);
     }
 }
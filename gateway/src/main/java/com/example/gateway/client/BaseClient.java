@@ -1,14 +1,26 @@
 package com.example.gateway.client;
 
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
-
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 
 public class BaseClient {
+    private static final int STREAM_BUFFER_SIZE = 8192;
 
     protected RestTemplate rest;
 
@@ -20,6 +32,9 @@ public class BaseClient {
         if (response.getStatusCode().is2xxSuccessful()) {
             return response;
         }
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(response.getHeaders().getETag()).build();
+        }
 
         ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
 
@@ -106,6 +121,33 @@ public class BaseClient {
         return prepareGatewayResponse(shareitServerResponse);
     }
 
+    protected void stream(String path, Long userId, @Nullable Map<String, Object> parameters,
+                          HttpServletResponse response) throws IOException {
+        URI uri = (parameters != null) ?
+                rest.getUriTemplateHandler().expand(path, parameters) :
+                rest.getUriTemplateHandler().expand(path);
+        ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, HttpMethod.GET);
+        request.getHeaders().addAll(defaultHeaders(userId));
+        request.getHeaders().setAccept(List.of(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON));
+
+        try (ClientHttpResponse shareitServerResponse = request.execute()) {
+            response.setStatus(shareitServerResponse.getRawStatusCode());
+            MediaType contentType = shareitServerResponse.getHeaders().getContentType();
+            if (contentType != null) {
+                response.setContentType(contentType.toString());
+            }
+            relay(shareitServerResponse.getBody(), response.getOutputStream());
+        }
+    }
+
+    private static void relay(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+        for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+            out.write(buffer, 0, read);
+            out.flush();
+        }
+    }
+
     private HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -113,6 +155,27 @@ public class BaseClient {
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
+        copyConditionalHeaders(headers);
         return headers;
     }
+
+    /**
+     * Forwards the validators of the client so that the server can answer 304 Not Modified.
+     */
+    private static void copyConditionalHeaders(HttpHeaders headers) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return;
+        }
+        HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return;
+        }
+        for (String name : List.of(HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MODIFIED_SINCE)) {
+            String value = request.getHeader(name);
+            if (value != null) {
+                headers.set(name, value);
+            }
+        }
+    }
 }
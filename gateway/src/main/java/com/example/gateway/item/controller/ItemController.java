@@ -9,12 +9,15 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
 
 @RestController
 @Slf4j
@@ -55,13 +58,39 @@ public class ItemController {
         return command.getItemsByOwnerId(ownerId, from, size);
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamItemsByOwnerId(@RequestHeader(UserHttpHeaders.USER_ID) Long ownerId,
+                                     HttpServletResponse response) throws IOException {
+        log.info("Received a GET request for the endpoint /items with userId_{} with NDJSON streaming", ownerId);
+        command.streamItemsByOwnerId(ownerId, response);
+    }
+
     @GetMapping("/search")
     public ResponseEntity<Object> searchItemsByNameOrDescription(@RequestHeader(UserHttpHeaders.USER_ID) Long ownerId,
                                                                  @RequestParam String text, @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                                 @Positive @RequestParam(name = "size", defaultValue = "10") Integer size
+                                                                 @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                                 @RequestParam(name = "ranked", defaultValue = "false") Boolean ranked,
+                                                                 @RequestParam(name = "fuzzy", defaultValue = "false") Boolean fuzzy
     ) {
         log.info("Received a GET request for the endpoint /items/search");
-        return command.searchItemsByNameOrDescription(text, from, size, ownerId);
+        return command.searchItemsByNameOrDescription(text, from, size, ranked, fuzzy, ownerId);
+    }
+
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamItemsByNameOrDescription(@RequestHeader(UserHttpHeaders.USER_ID) Long ownerId,
+                                               @RequestParam String text,
+                                               @RequestParam(name = "ranked", defaultValue = "false") Boolean ranked,
+                                               @RequestParam(name = "fuzzy", defaultValue = "false") Boolean fuzzy,
+                                               HttpServletResponse response) throws IOException {
+        log.info("Received a GET request for the endpoint /items/search with NDJSON streaming");
+        command.streamItemsByNameOrDescription(text, ranked, fuzzy, ownerId, response);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggestItemNames(@RequestParam String prefix,
+                                                   @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        log.info("Received a GET request for the endpoint /items/suggest");
+        return command.suggestItemNames(prefix, size);
     }
 
     @PostMapping("/{itemId}/comment")
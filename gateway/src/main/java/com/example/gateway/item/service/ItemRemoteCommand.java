@@ -5,6 +5,9 @@ import com.example.gateway.item.dto.ItemUpdateRequestDto;
 import com.example.gateway.item.dto.RequestCommentDto;
 import org.springframework.http.ResponseEntity;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
 public interface ItemRemoteCommand {
     ResponseEntity<Object> addItem(Long ownerId, ItemCreationRequestDto itemDto);
 
@@ -14,7 +17,15 @@ public interface ItemRemoteCommand {
 
     ResponseEntity<Object> getItemsByOwnerId(Long ownerId, Integer from, Integer size);
 
-    ResponseEntity<Object> searchItemsByNameOrDescription(String text, Integer from, Integer size, Long ownerId);
+    ResponseEntity<Object> searchItemsByNameOrDescription(String text, Integer from, Integer size,
+                                                          Boolean ranked, Boolean fuzzy, Long ownerId);
+
+    void streamItemsByOwnerId(Long ownerId, HttpServletResponse response) throws IOException;
+
+    void streamItemsByNameOrDescription(String text, Boolean ranked, Boolean fuzzy, Long ownerId,
+                                        HttpServletResponse response) throws IOException;
+
+    ResponseEntity<Object> suggestItemNames(String prefix, Integer size);
 
     ResponseEntity<Object> addComment(Long userId, RequestCommentDto comment, Long itemId);
 
@@ -11,6 +11,9 @@ import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
 import java.util.Map;
 
 import static com.example.gateway.utills.RestEndpoints.ITEM_API_PREFIX;
@@ -53,13 +56,41 @@ public class ItemRemoteCommandImpl extends BaseClient implements ItemRemoteComma
     }
 
     @Override
-    public ResponseEntity<Object> searchItemsByNameOrDescription(String text, Integer from, Integer size, Long ownerId) {
+    public ResponseEntity<Object> searchItemsByNameOrDescription(String text, Integer from, Integer size,
+                                                                 Boolean ranked, Boolean fuzzy, Long ownerId) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
+                "size", size,
+                "ranked", ranked,
+                "fuzzy", fuzzy
+        );
+        return get("/search?text={text}&from={from}&size={size}&ranked={ranked}&fuzzy={fuzzy}", ownerId, parameters);
+    }
+
+    @Override
+    public void streamItemsByOwnerId(Long ownerId, HttpServletResponse response) throws IOException {
+        stream("", ownerId, null, response);
+    }
+
+    @Override
+    public void streamItemsByNameOrDescription(String text, Boolean ranked, Boolean fuzzy, Long ownerId,
+                                               HttpServletResponse response) throws IOException {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "ranked", ranked,
+                "fuzzy", fuzzy
+        );
+        stream("/search?text={text}&ranked={ranked}&fuzzy={fuzzy}", ownerId, parameters, response);
+    }
+
+    @Override
+    public ResponseEntity<Object> suggestItemNames(String prefix, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "prefix", prefix,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", ownerId, parameters);
+        return get("/suggest?prefix={prefix}&size={size}", null, parameters);
     }
 
     @Override
@@ -38,9 +38,10 @@ public class ItemRequestController {
     @GetMapping("/all")
     public ResponseEntity<Object> getAllRequests(@RequestHeader(UserHttpHeaders.USER_ID) Long userId,
                                                  @RequestParam(required = false, defaultValue = "0") Integer from,
-                                                 @RequestParam(required = false, defaultValue = "10") Integer size) {
+                                                 @RequestParam(required = false, defaultValue = "10") Integer size,
+                                                 @RequestParam(required = false) String cursor) {
         log.info("Received a GET request for the endpoint /requests/all with userId_{}", userId);
-        return command.getAllRequests(userId, from, size);
+        return command.getAllRequests(userId, from, size, cursor);
     }
 
     @GetMapping("/{requestId}")
@@ -8,7 +8,7 @@ public interface RequestRemoteCommand {
 
     ResponseEntity<Object> getAllOwnRequests(Long userId);
 
-    ResponseEntity<Object> getAllRequests(Long userId, Integer from, Integer size);
+    ResponseEntity<Object> getAllRequests(Long userId, Integer from, Integer size, String cursor);
 
     ResponseEntity<Object> getRequestById(Long userId, Long requestId);
 }
@@ -36,7 +36,14 @@ public class RequestRemoteCommandImpl extends BaseClient implements RequestRemot
     }
 
     @Override
-    public ResponseEntity<Object> getAllRequests(Long userId, Integer from, Integer size) {
+    public ResponseEntity<Object> getAllRequests(Long userId, Integer from, Integer size, String cursor) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of(
+                    "cursor", cursor,
+                    "size", size
+            );
+            return get("/all?cursor={cursor}&size={size}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -5,10 +5,13 @@ import com.example.gateway.item.dto.UserUpdateRequestDto;
 import com.example.gateway.user.sevice.UserRemoteCommandImpl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
 
 @RestController
 @Slf4j
@@ -44,6 +47,12 @@ public class UserController {
         return command.getAllUsers();
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllUsers(HttpServletResponse response) throws IOException {
+        log.info("Received a GET request for the endpoint /users with NDJSON streaming");
+        command.streamAllUsers(response);
+    }
+
     @DeleteMapping("/{userId}")
     public void deleteUserById(@PathVariable Long userId) {
         log.info("Received a DELETE request for the endpoint /users/{userId} with userId_{}", userId);
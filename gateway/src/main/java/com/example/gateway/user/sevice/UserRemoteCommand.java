@@ -4,6 +4,9 @@ import com.example.gateway.item.dto.UserCreationRequestDto;
 import com.example.gateway.item.dto.UserUpdateRequestDto;
 import org.springframework.http.ResponseEntity;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
 public interface UserRemoteCommand {
 
     ResponseEntity<Object> addUser(UserCreationRequestDto userDto);
@@ -14,5 +17,7 @@ public interface UserRemoteCommand {
 
     ResponseEntity<Object> getAllUsers();
 
+    void streamAllUsers(HttpServletResponse response) throws IOException;
+
     ResponseEntity<Object> deleteUserById(Long userId);
 }
@@ -11,6 +11,9 @@ import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
 import static com.example.gateway.utills.RestEndpoints.USER_API_PREFIX;
 
 @Service
@@ -34,6 +37,10 @@ public class UserRemoteCommandImpl extends BaseClient implements UserRemoteComma
         return get("");
     }
 
+    public void streamAllUsers(HttpServletResponse response) throws IOException {
+        stream("", null, null, response);
+    }
+
     public ResponseEntity<Object> getUserById(Long userId) {
         return get("/" + userId);
     }
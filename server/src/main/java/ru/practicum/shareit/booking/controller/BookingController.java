@@ -1,15 +1,27 @@
 package ru.practicum.shareit.booking.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.booking.dto.BookingCreationRequestDto;
+import ru.practicum.shareit.booking.dto.BookingCreationResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStatsDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateResultDto;
+import ru.practicum.shareit.booking.service.BookingCursor;
 import ru.practicum.shareit.booking.service.BookingGetRequest;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.utills.NdjsonWriter;
 import ru.practicum.shareit.utills.UserHttpHeaders;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -18,6 +30,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BookingController {
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public BookingDto addBooking(@RequestHeader(UserHttpHeaders.USER_ID) Long userId,
@@ -26,6 +39,13 @@ public class BookingController {
         return bookingService.addBooking(bookingDto, userId);
     }
 
+    @PostMapping("/batch")
+    public List<BookingCreationResultDto> addBookings(@RequestHeader(UserHttpHeaders.USER_ID) Long userId,
+                                                      @RequestBody List<BookingCreationRequestDto> bookingDtos) {
+        log.info("Received a POST request for the endpoint /bookings/batch with userId_{}", userId);
+        return bookingService.addBookings(bookingDtos, userId);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto updateBookingStatus(@RequestHeader(UserHttpHeaders.USER_ID) Long userId,
                                           @PathVariable Long bookingId,
@@ -34,10 +54,34 @@ public class BookingController {
         return bookingService.updateBookingStatus(bookingId, approved, userId);
     }
 
+    @PatchMapping("/batch")
+    public List<BookingStatusUpdateResultDto> updateBookingStatuses(
+            @RequestHeader(UserHttpHeaders.USER_ID) Long userId,
+            @RequestBody List<BookingStatusUpdateDto> updates) {
+        log.info("Received a PATCH request for the endpoint /bookings/batch with userId_{}", userId);
+        return bookingService.updateBookingStatuses(updates, userId);
+    }
+
+    @GetMapping("/stats")
+    public BookingStatsDto getStatsByBookerId(@RequestHeader(UserHttpHeaders.USER_ID) Long bookerId) {
+        log.info("Received a GET request for the endpoint /bookings/stats with userId_{}", bookerId);
+        return bookingService.getStatsByBookerId(bookerId);
+    }
+
+    @GetMapping("/owner/stats")
+    public BookingStatsDto getStatsByBookerItems(@RequestHeader(UserHttpHeaders.USER_ID) Long ownerId) {
+        log.info("Received a GET request for the endpoint /bookings/owner/stats with userId_{}", ownerId);
+        return bookingService.getStatsByBookerItems(ownerId);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getBooking(@RequestHeader(UserHttpHeaders.USER_ID) Long userId,
-                                 @PathVariable Long bookingId) {
+                                 @PathVariable Long bookingId,
+                                 WebRequest webRequest) {
         log.info("Received a GET request for the endpoint /bookings/bookingId with userId_{}", userId);
+        if (webRequest.checkNotModified(bookingService.getBookingEtag(bookingId, userId))) {
+            return null;
+        }
         return bookingService.getBooking(bookingId, userId);
     }
 
@@ -45,21 +89,76 @@ public class BookingController {
     public List<BookingDto> getAllByBookerId(@RequestHeader(UserHttpHeaders.USER_ID) Long bookerId,
                                              @RequestParam String state,
                                              @RequestParam(required = false) Integer from,
-                                             @RequestParam(required = false) Integer size) {
+                                             @RequestParam(required = false) Integer size,
+                                             @RequestParam(required = false) String cursor,
+                                             HttpServletResponse response) {
         log.info("Received a GET request for the endpoint /bookings with userId_{}", bookerId);
+        BookingGetRequest request = BookingGetRequest.builder()
+                .userId(bookerId).possibleState(state).from(from).size(size).cursor(cursor).build();
+        if (cursor == null) {
+            return bookingService.getAllByBookerId(request);
+        }
+        Slice<BookingDto> bookings = bookingService.getSliceByBookerId(request);
+        if (bookings.hasNext()) {
+            BookingDto last = bookings.getContent().get(bookings.getNumberOfElements() - 1);
+            response.setHeader(UserHttpHeaders.NEXT_CURSOR, BookingCursor.of(last).encode());
+        }
+        return bookings.getContent();
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllByBookerId(@RequestHeader(UserHttpHeaders.USER_ID) Long bookerId,
+                                    @RequestParam String state,
+                                    @RequestParam(required = false) Integer from,
+                                    @RequestParam(required = false) Integer size,
+                                    HttpServletResponse response) throws IOException {
+        log.info("Received a GET request for the endpoint /bookings with userId_{} with NDJSON streaming", bookerId);
         BookingGetRequest request = BookingGetRequest.builder()
                 .userId(bookerId).possibleState(state).from(from).size(size).build();
-        return bookingService.getAllByBookerId(request);
+        NdjsonWriter<BookingDto> writer = NdjsonWriter.of(response, objectMapper);
+        if (from != null && size != null) {
+            bookingService.getAllByBookerId(request).forEach(writer);
+            return;
+        }
+        bookingService.streamAllByBookerId(request, writer);
     }
 
     @GetMapping("/owner")
     public List<BookingDto> getAllByBookerItems(@RequestHeader(UserHttpHeaders.USER_ID) Long ownerId,
                                                 @RequestParam String state,
                                                 @RequestParam(required = false) Integer from,
-                                                @RequestParam(required = false) Integer size) {
+                                                @RequestParam(required = false) Integer size,
+                                                @RequestParam(required = false) String cursor,
+                                                HttpServletResponse response) {
         log.info("Received a GET request for the endpoint /bookings/owner with userId_{}", ownerId);
+        BookingGetRequest request = BookingGetRequest.builder()
+                .userId(ownerId).possibleState(state).from(from).size(size).cursor(cursor).build();
+        if (cursor == null) {
+            return bookingService.getAllByBookerItems(request);
+        }
+        Slice<BookingDto> bookings = bookingService.getSliceByBookerItems(request);
+        if (bookings.hasNext()) {
+            BookingDto last = bookings.getContent().get(bookings.getNumberOfElements() - 1);
+            response.setHeader(UserHttpHeaders.NEXT_CURSOR, BookingCursor.of(last).encode());
+        }
+        return bookings.getContent();
+    }
+
+    @GetMapping(value = "/owner", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllByBookerItems(@RequestHeader(UserHttpHeaders.USER_ID) Long ownerId,
+                                       @RequestParam String state,
+                                       @RequestParam(required = false) Integer from,
+                                       @RequestParam(required = false) Integer size,
+                                       HttpServletResponse response) throws IOException {
+        log.info("Received a GET request for the endpoint /bookings/owner with userId_{} with NDJSON streaming",
+                ownerId);
         BookingGetRequest request = BookingGetRequest.builder()
                 .userId(ownerId).possibleState(state).from(from).size(size).build();
-        return bookingService.getAllByBookerItems(request);
+        NdjsonWriter<BookingDto> writer = NdjsonWriter.of(response, objectMapper);
+        if (from != null && size != null) {
+            bookingService.getAllByBookerItems(request).forEach(writer);
+            return;
+        }
+        bookingService.streamAllByBookerItems(request, writer);
     }
 }
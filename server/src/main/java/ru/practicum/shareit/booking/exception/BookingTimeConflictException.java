@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.exception;
+
+import ru.practicum.shareit.exception.ConflictException;
+
+import java.time.LocalDateTime;
+
+import static java.lang.String.format;
+
+public class BookingTimeConflictException extends ConflictException {
+    private static final String TIME_ALREADY_BOOKED = "Item ID_%d is already booked within %s <--> %s";
+
+    public BookingTimeConflictException(String message) {
+        super(message);
+    }
+
+    public static BookingTimeConflictException getFromItemIdAndDates(Long itemId, LocalDateTime start,
+                                                                     LocalDateTime end) {
+        return new BookingTimeConflictException(format(TIME_ALREADY_BOOKED, itemId, start, end));
+    }
+}
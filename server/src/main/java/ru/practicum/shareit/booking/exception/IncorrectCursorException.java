@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.exception;
+
+import ru.practicum.shareit.exception.IncorrectDataException;
+
+import static java.lang.String.format;
+
+public class IncorrectCursorException extends IncorrectDataException {
+    private static final String INCORRECT_CURSOR = "Incorrect cursor: %s";
+
+    public IncorrectCursorException(String message) {
+        super(message);
+    }
+
+    public static IncorrectCursorException getFromCursor(String cursor) {
+        return new IncorrectCursorException(format(INCORRECT_CURSOR, cursor));
+    }
+}
@@ -6,11 +6,10 @@ import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.ShortBookingDto;
 import ru.practicum.shareit.booking.repository.model.Booking;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.mapper.ItemDtoMapper;
 import ru.practicum.shareit.user.mapper.UserDtoMapper;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utills.EntityResolver;
 
 import java.util.Collection;
 import java.util.List;
@@ -18,19 +17,17 @@ import java.util.stream.Collectors;
 
 @Component
 public class BookingDtoMapper {
-    private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final EntityResolver entityResolver;
 
-    public BookingDtoMapper(ItemRepository itemRepository, UserRepository userRepository) {
-        this.itemRepository = itemRepository;
-        this.userRepository = userRepository;
+    public BookingDtoMapper(EntityResolver entityResolver) {
+        this.entityResolver = entityResolver;
     }
 
     public Booking toBooking(BookingCreationRequestDto bookingDto, Long userId) {
         Booking booking = new Booking();
 
-        User booker = userRepository.findById(userId).orElseThrow();
-        Item item = itemRepository.findById(bookingDto.getItemId()).orElseThrow();
+        User booker = entityResolver.getUser(userId);
+        Item item = entityResolver.getItem(bookingDto.getItemId());
 
         booking.setStartTime(bookingDto.getStart());
         booking.setEndTime(bookingDto.getEnd());
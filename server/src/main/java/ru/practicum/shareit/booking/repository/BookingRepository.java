@@ -1,85 +1,77 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingStatsDto;
 import ru.practicum.shareit.booking.repository.model.Booking;
 import ru.practicum.shareit.booking.repository.model.Booking.Status;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findBookingByBookerIdOrderByStartTimeDesc(
-            Long bookerId);
-
-    List<Booking> findBookingByBookerIdAndStartTimeIsBeforeAndEndTimeIsAfter(
-            Long bookerId, LocalDateTime time1, LocalDateTime time2);
-
-    List<Booking> findAllByBookerIdAndEndTimeIsBeforeOrderByStartTimeDesc(
-            Long bookerId, LocalDateTime time);
-
-    List<Booking> findBookingsByBookerIdAndStartTimeIsAfterOrderByStartTimeDesc(
-            Long bookerId, LocalDateTime time);
-
-    List<Booking> findBookingsByBookerIdAndStatusEquals(
-            Long bookerId, Status status);
-
-    List<Booking> findBookingsByItemOwnerIdOrderByStartTimeDesc(
-            Long ownerId);
-
-    List<Booking> findBookingsByItemOwnerIdAndStartTimeIsBeforeAndEndTimeIsAfter(
-            Long ownerId, LocalDateTime time1, LocalDateTime time2);
-
-    List<Booking> findBookingsByItemOwnerIdAndEndTimeIsBeforeOrderByStartTimeDesc(
-            Long ownerId, LocalDateTime time);
-
-    List<Booking> findBookingsByItemOwnerIdAndStartTimeIsAfterOrderByStartTimeDesc(
-            Long ownerId, LocalDateTime time);
-
-    List<Booking> findBookingsByItemOwnerIdAndStatusEquals(
-            Long ownerId, Status status);
+import java.util.Optional;
+
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+    /**
+     * Counts the bookings of every state in one pass. Sums over no rows are null, hence the coalesce.
+     */
+    String STATS_SELECT = "select new ru.practicum.shareit.booking.dto.BookingStatsDto(count(b), " +
+            "coalesce(sum(case when b.startTime < :time and b.endTime > :time then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.endTime < :time then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.startTime > :time then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.status = :waiting then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.status = :rejected then 1 else 0 end), 0)) " +
+            "from Booking b ";
 
     boolean existsByBookerIdAndItemIdAndEndTimeIsBefore(
             Long bookerId, Long itemId, LocalDateTime time);
 
-    List<Booking> findAllByItemId(Long itemId);
-
-    List<Booking> findAllByItemIdAndStatus(Long itemId, Status status);
-
-    List<Booking> findAllByItemOwnerId(Long ownerId);
-
-    List<Booking> findAllByItem_OwnerIdAndStatus(Long ownerId, Status status);
-
-    Page<Booking> findBookingByBookerIdOrderByStartTimeDesc(
-            Long bookerId, Pageable pageable);
-
-    Page<Booking> findBookingByBookerIdAndStartTimeIsBeforeAndEndTimeIsAfter(
-            Long bookerId, LocalDateTime time1, LocalDateTime time2, Pageable pageable);
-
-    Page<Booking> findAllByBookerIdAndEndTimeIsBeforeOrderByStartTimeDesc(
-            Long bookerId, LocalDateTime time, Pageable pageable);
-
-    Page<Booking> findBookingsByBookerIdAndStartTimeIsAfterOrderByStartTimeDesc(
-            Long bookerId, LocalDateTime time, Pageable pageable);
-
-    Page<Booking> findBookingsByBookerIdAndStatusEquals(
-            Long bookerId, Status status, Pageable pageable);
-
-    Page<Booking> findBookingsByItemOwnerIdOrderByStartTimeAsc(
-            Long ownerId, Pageable pageable);
-
-    Page<Booking> findBookingsByItemOwnerIdAndStartTimeIsBeforeAndEndTimeIsAfter(
-            Long ownerId, LocalDateTime time1, LocalDateTime time2, Pageable pageable);
-
-    Page<Booking> findBookingsByItemOwnerIdAndEndTimeIsBeforeOrderByStartTimeDesc(
-            Long ownerId, LocalDateTime time, Pageable pageable);
-
-    Page<Booking> findBookingsByItemOwnerIdAndStartTimeIsAfterOrderByStartTimeDesc(
-            Long ownerId, LocalDateTime time, Pageable pageable);
-
-    Page<Booking> findBookingsByItemOwnerIdAndStatusEquals(
-            Long ownerId, Status status, Pageable pageable);
-
-
+    List<Booking> findAllByItemIdAndStatusIn(Long itemId, Collection<Status> statuses);
+
+    Optional<Booking> findFirstByItemIdAndStartTimeBeforeOrderByEndTimeAsc(Long itemId, LocalDateTime time);
+
+    default BookingStatsDto countByBookerIdPerState(Long bookerId, LocalDateTime time) {
+        return countByBookerIdPerState(bookerId, time, Status.WAITING, Status.REJECTED);
+    }
+
+    default BookingStatsDto countByItemOwnerIdPerState(Long ownerId, LocalDateTime time) {
+        return countByItemOwnerIdPerState(ownerId, time, Status.WAITING, Status.REJECTED);
+    }
+
+    @Query(STATS_SELECT + "where b.booker.id = :userId")
+    BookingStatsDto countByBookerIdPerState(@Param("userId") Long bookerId, @Param("time") LocalDateTime time,
+                                            @Param("waiting") Status waiting, @Param("rejected") Status rejected);
+
+    @Query(STATS_SELECT + "where b.item.owner.id = :userId")
+    BookingStatsDto countByItemOwnerIdPerState(@Param("userId") Long ownerId, @Param("time") LocalDateTime time,
+                                               @Param("waiting") Status waiting, @Param("rejected") Status rejected);
+
+    @Query("select b from Booking b join fetch b.item i join fetch i.owner " +
+            "left join fetch i.request r left join fetch r.requestor join fetch b.booker " +
+            "where b.id = :bookingId")
+    Optional<Booking> findWithItemAndBookerById(@Param("bookingId") Long bookingId);
+
+    @Query("select b.version as version, i.version as itemVersion, i.owner.id as ownerId, b.booker.id as bookerId " +
+            "from Booking b join b.item i where b.id = :bookingId")
+    Optional<BookingVersionView> findVersionById(@Param("bookingId") Long bookingId);
+
+    @Query("select b from Booking b join fetch b.item i join fetch i.owner " +
+            "left join fetch i.request r left join fetch r.requestor join fetch b.booker " +
+            "where b.id in :bookingIds")
+    List<Booking> findWithItemAndBookerByIdIn(@Param("bookingIds") Collection<Long> bookingIds);
+
+    /**
+     * Sets the status only if the booking belongs to an item of the owner and is not approved yet.
+     * Returns the number of updated rows, 0 or 1.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = :status, b.version = b.version + 1 " +
+            "where b.id = :bookingId and b.status <> :approved " +
+            "and b.item.id in (select i.id from Item i where i.owner.id = :ownerId)")
+    int updateStatusByItemOwnerId(@Param("bookingId") Long bookingId,
+                                  @Param("ownerId") Long ownerId,
+                                  @Param("status") Status status,
+                                  @Param("approved") Status approved);
 }
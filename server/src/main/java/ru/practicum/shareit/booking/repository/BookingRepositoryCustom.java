@@ -0,0 +1,59 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.booking.dto.ShortBookingDto;
+import ru.practicum.shareit.booking.repository.model.Booking;
+import ru.practicum.shareit.booking.repository.model.Booking.Status;
+import ru.practicum.shareit.booking.service.BookingCursor;
+import ru.practicum.shareit.booking.service.State;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public interface BookingRepositoryCustom {
+    List<Booking> findByBookerId(Long bookerId, State state, LocalDateTime time, Pageable pageable);
+
+    List<Booking> findByItemOwnerId(Long ownerId, State state, LocalDateTime time, Pageable pageable);
+
+    Slice<Booking> findSliceByBookerId(Long bookerId, State state, LocalDateTime time,
+                                       @Nullable BookingCursor after, int size);
+
+    Slice<Booking> findSliceByItemOwnerId(Long ownerId, State state, LocalDateTime time,
+                                          @Nullable BookingCursor after, int size);
+
+    /**
+     * Sets the statuses in one JDBC batch, skipping bookings that are approved already.
+     * Returns the updated row count of every entry in iteration order.
+     */
+    int[] updateStatuses(Map<Long, Status> statuses);
+
+    /**
+     * Inserts new bookings in one JDBC batch and sets their generated ids.
+     */
+    void insertAll(List<Booking> bookings);
+
+    /**
+     * Returns, by item id, the booking of each item that ended last before the time.
+     */
+    Map<Long, ShortBookingDto> findLastBookingsByItemIds(Collection<Long> itemIds, LocalDateTime time);
+
+    /**
+     * Returns, by item id, the approved booking of each item that starts first after the time.
+     */
+    Map<Long, ShortBookingDto> findNextBookingsByItemIds(Collection<Long> itemIds, LocalDateTime time);
+
+    /**
+     * Returns, by item id, the first moment after the time at which one of the item's bookings ends
+     * or, if approved, starts. Items without such a booking are left out.
+     */
+    Map<Long, LocalDateTime> findBookingBoundariesByItemIds(Collection<Long> itemIds, LocalDateTime time);
+
+    Stream<Booking> streamByBookerId(Long bookerId, State state, LocalDateTime time);
+
+    Stream<Booking> streamByItemOwnerId(Long ownerId, State state, LocalDateTime time);
+}
@@ -0,0 +1,261 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ru.practicum.shareit.booking.dto.ShortBookingDto;
+import ru.practicum.shareit.booking.repository.model.Booking;
+import ru.practicum.shareit.booking.repository.model.Booking.Status;
+import ru.practicum.shareit.booking.service.BookingCursor;
+import ru.practicum.shareit.booking.service.State;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+/**
+ * Builds every booking list query from the user it belongs to and the requested state.
+ * The item with its owner and request and the booker are fetched in the same statement,
+ * so mapping the result to DTOs issues no further queries.
+ */
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+    private static final int STREAM_FETCH_SIZE = 500;
+    private static final Sort DEFAULT_SORT = Sort.by(Sort.Direction.DESC, "startTime");
+    private static final String BOOKER_PREDICATE = "b.booker.id = :userId";
+    private static final String OWNER_PREDICATE = "i.owner.id = :userId";
+    private static final String AFTER_CURSOR_PREDICATE = " and (b.startTime < :cursorTime " +
+            "or (b.startTime = :cursorTime and b.id < :cursorId))";
+
+    private static final String UPDATE_STATUS_SQL =
+            "update bookings set status = ?, version = version + 1 where booking_id = ? and status <> 'APPROVED'";
+
+    private static final String INSERT_SQL =
+            "insert into bookings (start_time, end_time, item_id, booker_id, status) values (?, ?, ?, ?, ?)";
+    private static final String[] GENERATED_COLUMNS = {"booking_id"};
+
+    private static final String LAST_BOOKINGS_SQL = "select booking_id, item_id, booker_id from (" +
+            "select b.booking_id, b.item_id, b.booker_id, row_number() over (" +
+            "partition by b.item_id order by b.end_time desc, b.booking_id desc) as item_rank " +
+            "from bookings b where b.item_id in (:itemIds) and b.end_time < :time) ranked " +
+            "where item_rank = 1";
+    private static final String NEXT_BOOKINGS_SQL = "select booking_id, item_id, booker_id from (" +
+            "select b.booking_id, b.item_id, b.booker_id, row_number() over (" +
+            "partition by b.item_id order by b.start_time, b.booking_id) as item_rank " +
+            "from bookings b where b.item_id in (:itemIds) and b.status = 'APPROVED' and b.start_time > :time) " +
+            "ranked where item_rank = 1";
+
+    private static final String BOOKING_BOUNDARIES_SQL = "select b.item_id, min(case " +
+            "when b.status = 'APPROVED' and b.start_time > :time then b.start_time else b.end_time end) as boundary " +
+            "from bookings b where b.item_id in (:itemIds) and b.end_time > :time group by b.item_id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public BookingRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @Override
+    public List<Booking> findByBookerId(Long bookerId, State state, LocalDateTime time, Pageable pageable) {
+        return find(BOOKER_PREDICATE, bookerId, state, time, pageable);
+    }
+
+    @Override
+    public List<Booking> findByItemOwnerId(Long ownerId, State state, LocalDateTime time, Pageable pageable) {
+        return find(OWNER_PREDICATE, ownerId, state, time, pageable);
+    }
+
+    @Override
+    public Slice<Booking> findSliceByBookerId(Long bookerId, State state, LocalDateTime time,
+                                              BookingCursor after, int size) {
+        return findSlice(BOOKER_PREDICATE, bookerId, state, time, after, size);
+    }
+
+    @Override
+    public Slice<Booking> findSliceByItemOwnerId(Long ownerId, State state, LocalDateTime time,
+                                                 BookingCursor after, int size) {
+        return findSlice(OWNER_PREDICATE, ownerId, state, time, after, size);
+    }
+
+    @Override
+    public int[] updateStatuses(Map<Long, Status> statuses) {
+        List<Object[]> batchArgs = statuses.entrySet().stream()
+                .map(entry -> new Object[]{entry.getValue().name(), entry.getKey()})
+                .collect(Collectors.toList());
+        return jdbcTemplate.batchUpdate(UPDATE_STATUS_SQL, batchArgs);
+    }
+
+    @Override
+    public void insertAll(List<Booking> bookings) {
+        jdbcTemplate.execute(connection -> connection.prepareStatement(INSERT_SQL, GENERATED_COLUMNS),
+                (PreparedStatement statement) -> {
+                    for (Booking booking : bookings) {
+                        statement.setObject(1, booking.getStartTime());
+                        statement.setObject(2, booking.getEndTime());
+                        statement.setLong(3, booking.getItem().getId());
+                        statement.setLong(4, booking.getBooker().getId());
+                        statement.setString(5, booking.getStatus().name());
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        for (Booking booking : bookings) {
+                            keys.next();
+                            booking.setId(keys.getLong(1));
+                        }
+                    }
+                    return null;
+                });
+    }
+
+    @Override
+    public Map<Long, ShortBookingDto> findLastBookingsByItemIds(Collection<Long> itemIds, LocalDateTime time) {
+        return findFirstBookingsByItemIds(LAST_BOOKINGS_SQL, itemIds, time);
+    }
+
+    @Override
+    public Map<Long, ShortBookingDto> findNextBookingsByItemIds(Collection<Long> itemIds, LocalDateTime time) {
+        return findFirstBookingsByItemIds(NEXT_BOOKINGS_SQL, itemIds, time);
+    }
+
+    @Override
+    public Map<Long, LocalDateTime> findBookingBoundariesByItemIds(Collection<Long> itemIds, LocalDateTime time) {
+        Map<Long, LocalDateTime> boundaries = new HashMap<>();
+        if (itemIds.isEmpty()) {
+            return boundaries;
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("itemIds", itemIds)
+                .addValue("time", time);
+        namedJdbcTemplate.query(BOOKING_BOUNDARIES_SQL, parameters, resultSet -> {
+            boundaries.put(resultSet.getLong("item_id"), resultSet.getObject("boundary", LocalDateTime.class));
+        });
+        return boundaries;
+    }
+
+    @Override
+    public Stream<Booking> streamByBookerId(Long bookerId, State state, LocalDateTime time) {
+        return stream(BOOKER_PREDICATE, bookerId, state, time);
+    }
+
+    @Override
+    public Stream<Booking> streamByItemOwnerId(Long ownerId, State state, LocalDateTime time) {
+        return stream(OWNER_PREDICATE, ownerId, state, time);
+    }
+
+    private Map<Long, ShortBookingDto> findFirstBookingsByItemIds(String sql, Collection<Long> itemIds,
+                                                                 LocalDateTime time) {
+        Map<Long, ShortBookingDto> bookings = new HashMap<>();
+        if (itemIds.isEmpty()) {
+            return bookings;
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("itemIds", itemIds)
+                .addValue("time", time);
+        namedJdbcTemplate.query(sql, parameters, resultSet -> {
+            bookings.put(resultSet.getLong("item_id"), new ShortBookingDto(resultSet.getLong("booking_id"),
+                    resultSet.getLong("booker_id")));
+        });
+        return bookings;
+    }
+
+    private List<Booking> find(String userPredicate, Long userId, State state, LocalDateTime time, Pageable pageable) {
+        TypedQuery<Booking> query = createQuery(userPredicate, userId, state, time, null, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return query.getResultList();
+    }
+
+    /**
+     * Seeks past the cursor instead of skipping rows and reads one extra row to tell
+     * whether a next slice exists, so neither OFFSET nor a count query is needed.
+     */
+    private Slice<Booking> findSlice(String userPredicate, Long userId, State state, LocalDateTime time,
+                                     BookingCursor after, int size) {
+        List<Booking> bookings = createQuery(userPredicate, userId, state, time, after, DEFAULT_SORT)
+                .setMaxResults(size + 1)
+                .getResultList();
+        boolean hasNext = bookings.size() > size;
+        List<Booking> content = hasNext ? bookings.subList(0, size) : bookings;
+        return new SliceImpl<>(content, PageRequest.of(0, size, DEFAULT_SORT), hasNext);
+    }
+
+    private Stream<Booking> stream(String userPredicate, Long userId, State state, LocalDateTime time) {
+        return createQuery(userPredicate, userId, state, time, null, Sort.unsorted())
+                .setHint(HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .getResultStream();
+    }
+
+    private TypedQuery<Booking> createQuery(String userPredicate, Long userId, State state, LocalDateTime time,
+                                            BookingCursor after, Sort sort) {
+        String jpql = "select b from Booking b join fetch b.item i join fetch i.owner " +
+                "left join fetch i.request r left join fetch r.requestor join fetch b.booker " +
+                "where " + userPredicate + getStatePredicate(state) +
+                ((after != null) ? AFTER_CURSOR_PREDICATE : "") + getOrderBy(sort);
+        TypedQuery<Booking> query = entityManager.createQuery(jpql, Booking.class)
+                .setParameter("userId", userId);
+        if (after != null) {
+            query.setParameter("cursorTime", after.getStartTime());
+            query.setParameter("cursorId", after.getId());
+        }
+        switch (state) {
+            case CURRENT:
+            case PAST:
+            case FUTURE:
+                query.setParameter("time", time);
+                break;
+            case WAITING:
+                query.setParameter("status", Status.WAITING);
+                break;
+            case REJECTED:
+                query.setParameter("status", Status.REJECTED);
+                break;
+            default:
+                break;
+        }
+        return query;
+    }
+
+    private String getStatePredicate(State state) {
+        switch (state) {
+            case CURRENT:
+                return " and b.startTime < :time and b.endTime > :time";
+            case PAST:
+                return " and b.endTime < :time";
+            case FUTURE:
+                return " and b.startTime > :time";
+            case WAITING:
+            case REJECTED:
+                return " and b.status = :status";
+            default:
+                return "";
+        }
+    }
+
+    private String getOrderBy(Sort sort) {
+        Sort order = sort.isSorted() ? sort : DEFAULT_SORT;
+        Sort.Direction tieBreak = order.iterator().next().getDirection();
+        return order.and(Sort.by(tieBreak, "id")).stream()
+                .map(o -> "b." + o.getProperty() + " " + o.getDirection().name().toLowerCase(Locale.ROOT))
+                .collect(Collectors.joining(", ", " order by ", ""));
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.repository;
+
+public interface BookingVersionView {
+    Long getVersion();
+
+    Long getItemVersion();
+
+    Long getOwnerId();
+
+    Long getBookerId();
+}
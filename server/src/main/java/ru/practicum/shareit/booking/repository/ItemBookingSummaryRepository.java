@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.repository.model.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long>,
+        ItemBookingSummaryRepositoryCustom {
+    @Query("select s.itemId from ItemBookingSummary s " +
+            "where s.validUntil <= :time and s.itemId > :afterItemId order by s.itemId")
+    List<Long> findExpiredItemIds(@Param("time") LocalDateTime time, @Param("afterItemId") Long afterItemId,
+                                  Pageable pageable);
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.booking.repository.model.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Writes go through JDBC: a native query run through Hibernate would invalidate the whole
+ * second-level cache.
+ */
+public interface ItemBookingSummaryRepositoryCustom {
+    void insertEmpty(Long itemId);
+
+    /**
+     * Adds expired rows for items that have none, so that the next roll forward computes them.
+     */
+    int insertMissing(LocalDateTime time);
+
+    /**
+     * Overwrites the rows in one JDBC batch. With {@code expiredAt} set, only rows still expired
+     * at that time are written, so a roll forward never replaces a row a booking change refreshed.
+     */
+    int[] updateAll(List<ItemBookingSummary> summaries, @Nullable LocalDateTime expiredAt);
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.repository.model.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class ItemBookingSummaryRepositoryCustomImpl implements ItemBookingSummaryRepositoryCustom {
+    private static final String UPDATE_SQL = "update item_booking_summary set last_booking_id = ?, " +
+            "last_booker_id = ?, next_booking_id = ?, next_booker_id = ?, valid_until = ? where item_id = ?";
+    private static final String EXPIRED_CONDITION = " and valid_until <= ?";
+    private static final String INSERT_EMPTY_SQL =
+            "insert into item_booking_summary (item_id, valid_until) values (?, null)";
+    private static final String INSERT_MISSING_SQL = "insert into item_booking_summary (item_id, valid_until) " +
+            "select i.item_id, ? from items i where not exists " +
+            "(select 1 from item_booking_summary s where s.item_id = i.item_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ItemBookingSummaryRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertEmpty(Long itemId) {
+        jdbcTemplate.update(INSERT_EMPTY_SQL, itemId);
+    }
+
+    @Override
+    public int insertMissing(LocalDateTime time) {
+        return jdbcTemplate.update(INSERT_MISSING_SQL, time);
+    }
+
+    @Override
+    public int[] updateAll(List<ItemBookingSummary> summaries, LocalDateTime expiredAt) {
+        String sql = (expiredAt != null) ? UPDATE_SQL + EXPIRED_CONDITION : UPDATE_SQL;
+        List<Object[]> batchArgs = summaries.stream()
+                .map(summary -> toArgs(summary, expiredAt))
+                .collect(Collectors.toList());
+        return jdbcTemplate.batchUpdate(sql, batchArgs);
+    }
+
+    private static Object[] toArgs(ItemBookingSummary summary, LocalDateTime expiredAt) {
+        Object[] args = {summary.getLastBookingId(), summary.getLastBookerId(), summary.getNextBookingId(),
+                summary.getNextBookerId(), summary.getValidUntil(), summary.getItemId(), expiredAt};
+        return (expiredAt != null) ? args : Arrays.copyOf(args, args.length - 1);
+    }
+}
@@ -34,6 +34,8 @@ public class Booking {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 50)
     private Status status = Status.WAITING;
+    @Version
+    private Long version;
 
     public enum Status {
         WAITING, APPROVED, REJECTED, CANCELED
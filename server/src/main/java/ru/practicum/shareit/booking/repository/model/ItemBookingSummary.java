@@ -0,0 +1,38 @@
+package ru.practicum.shareit.booking.repository.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Last and next booking of an item as of the time it was computed. The row stays exact until
+ * {@code validUntil}, the first moment a booking of the item starts or ends; null means never.
+ */
+@Entity
+@Table(name = "item_booking_summary")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+    @Column(name = "valid_until")
+    private LocalDateTime validUntil;
+}
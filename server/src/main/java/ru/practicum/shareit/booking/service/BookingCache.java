@@ -0,0 +1,126 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.exception.BookingNotFoundException;
+import ru.practicum.shareit.booking.mapper.BookingDtoMapper;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.model.Booking;
+import ru.practicum.shareit.user.mapper.ItemDtoMapper;
+import ru.practicum.shareit.user.mapper.UserDtoMapper;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static ru.practicum.shareit.utills.TransactionHooks.runAfterCommit;
+
+/**
+ * Bookings by id in the "booking" cache. Entries are the same for every user and carry the owner of
+ * the item, so that callers check access on each read. Changes evict their entries after commit.
+ * A read that loaded a booking before its change committed may only store it if no eviction of
+ * the booking happened meanwhile, which is tracked by striped generation counters.
+ */
+@Component
+@Slf4j
+public class BookingCache {
+    public static final String CACHE_NAME = "booking";
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final BookingRepository bookingRepository;
+    private final BookingDtoMapper bookingDtoMapper;
+    private final UserDtoMapper userDtoMapper;
+    private final ItemDtoMapper itemDtoMapper;
+    private final CacheManager cacheManager;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public BookingCache(BookingRepository bookingRepository,
+                        BookingDtoMapper bookingDtoMapper,
+                        UserDtoMapper userDtoMapper,
+                        ItemDtoMapper itemDtoMapper,
+                        CacheManager cacheManager) {
+        this.bookingRepository = bookingRepository;
+        this.bookingDtoMapper = bookingDtoMapper;
+        this.userDtoMapper = userDtoMapper;
+        this.itemDtoMapper = itemDtoMapper;
+        this.cacheManager = cacheManager;
+    }
+
+    public Entry get(Long bookingId) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            return load(bookingId);
+        }
+        Entry cached = cache.get(bookingId, Entry.class);
+        if (cached != null) {
+            return cached;
+        }
+        int stripe = stripe(bookingId);
+        long generation = generations.get(stripe);
+        Entry entry = load(bookingId);
+        cache.put(bookingId, entry);
+        if (generations.get(stripe) != generation) {
+            cache.evict(bookingId);
+        }
+        return entry;
+    }
+
+    /**
+     * Advances the generation of each booking before evicting it, so that a read running meanwhile
+     * takes back whatever it stored.
+     */
+    public void evict(Collection<Long> bookingIds) {
+        List<Long> evictedIds = List.copyOf(bookingIds);
+        runAfterCommit(() -> {
+            evictedIds.forEach(bookingId -> generations.incrementAndGet(stripe(bookingId)));
+            Cache cache = cacheManager.getCache(CACHE_NAME);
+            if (cache != null) {
+                evictedIds.forEach(cache::evict);
+            }
+        });
+    }
+
+    /**
+     * Entries hold the item name, so renaming an item drops all cached bookings of it.
+     */
+    public void evictByItemId(Long itemId) {
+        runAfterCommit(() -> {
+            for (int stripe = 0; stripe < GENERATION_STRIPES; stripe++) {
+                generations.incrementAndGet(stripe);
+            }
+            Cache cache = cacheManager.getCache(CACHE_NAME);
+            if (cache == null) {
+                return;
+            }
+            if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache) {
+                ((com.github.benmanes.caffeine.cache.Cache<?, ?>) cache.getNativeCache()).asMap().values()
+                        .removeIf(value -> value instanceof Entry
+                                && itemId.equals(((Entry) value).getBooking().getItem().getId()));
+            } else {
+                cache.clear();
+            }
+            log.debug("Cached bookings of item ID_{} evicted.", itemId);
+        });
+    }
+
+    private Entry load(Long bookingId) {
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId)
+                .orElseThrow(() -> BookingNotFoundException.getFromBookingId(bookingId));
+        return new Entry(bookingDtoMapper.toBookingDto(booking, userDtoMapper, itemDtoMapper),
+                booking.getItem().getOwner().getId());
+    }
+
+    private static int stripe(Long bookingId) {
+        return (int) Math.floorMod(bookingId, (long) GENERATION_STRIPES);
+    }
+
+    @Data
+    public static class Entry {
+        private final BookingDto booking;
+        private final Long ownerId;
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.Data;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.exception.IncorrectCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last booking of a page in the (start time, id) descending order.
+ * Clients get it as an opaque string and pass it back to fetch the next page.
+ */
+@Data
+public class BookingCursor {
+    private static final String SEPARATOR = ",";
+
+    private final LocalDateTime startTime;
+    private final Long id;
+
+    public static BookingCursor of(BookingDto booking) {
+        return new BookingCursor(booking.getStart(), booking.getId());
+    }
+
+    public static BookingCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(SEPARATOR, -1);
+            if (parts.length != 2) {
+                throw IncorrectCursorException.getFromCursor(cursor);
+            }
+            return new BookingCursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw IncorrectCursorException.getFromCursor(cursor);
+        }
+    }
+
+    public String encode() {
+        String raw = startTime + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -13,5 +13,6 @@ public class BookingGetRequest {
     @Positive(message = "From parameter can not be less than zero")
     private Integer from;
     private Integer size;
+    private String cursor;
 
 }
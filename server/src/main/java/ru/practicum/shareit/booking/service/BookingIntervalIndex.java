@@ -0,0 +1,262 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.exception.BookingTimeConflictException;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.model.Booking;
+import ru.practicum.shareit.booking.repository.model.Booking.Status;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static java.time.LocalDateTime.now;
+import static ru.practicum.shareit.utills.TransactionHooks.runAfterRollback;
+
+/**
+ * Keeps the waiting and approved bookings of every item in an interval tree, loaded on first use.
+ * Checking an item and saving its booking happen under the item lock, so concurrent requests
+ * cannot both take the same period. A rolled back save is taken out of the tree again. Bookings
+ * that have ended can no longer overlap a new one and are dropped whenever their item is locked.
+ */
+@Component
+@Slf4j
+public class BookingIntervalIndex {
+    private static final List<Status> ACTIVE_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final ConcurrentMap<Long, ItemIntervals> items = new ConcurrentHashMap<>();
+
+    public BookingIntervalIndex(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    /**
+     * Rejects the booking if it would take a period already booked for its item, otherwise
+     * saves it and records its new status.
+     */
+    public Booking checkAndSave(Booking booking, Supplier<Booking> save) {
+        Long itemId = booking.getItem().getId();
+        ItemIntervals intervals = items.computeIfAbsent(itemId, id -> new ItemIntervals());
+        intervals.lock.lock();
+        try {
+            intervals.loadIfNeeded(itemId);
+            intervals.removeEnded(now());
+            if (ACTIVE_STATUSES.contains(booking.getStatus())) {
+                Long conflictId = intervals.tree.findOverlap(booking.getStartTime(), booking.getEndTime(),
+                        booking.getId());
+                if (conflictId != null) {
+                    throw BookingTimeConflictException.getFromItemIdAndDates(itemId, booking.getStartTime(),
+                            booking.getEndTime());
+                }
+            }
+            Booking saved = save.get();
+            Booking previous = intervals.put(saved);
+            runAfterRollback(() -> intervals.restore(saved, previous));
+            return saved;
+        } finally {
+            intervals.lock.unlock();
+        }
+    }
+
+    /**
+     * Batch counterpart of {@link #checkAndSave} for new bookings. Locks the items of all bookings
+     * in id order, leaves out the bookings that conflict with stored ones or with an earlier booking
+     * of the batch and saves the rest at once. Returns the left out bookings with their conflicts.
+     */
+    public Map<Booking, BookingTimeConflictException> checkAndSaveAll(List<Booking> bookings,
+                                                                      Consumer<List<Booking>> saveAll) {
+        SortedMap<Long, ItemIntervals> locked = lockItems(bookings);
+        try {
+            Map<Booking, BookingTimeConflictException> conflicts = new IdentityHashMap<>();
+            List<Booking> accepted = new ArrayList<>();
+            long pendingId = 0;
+            try {
+                for (Booking booking : bookings) {
+                    BookingIntervalTree tree = locked.get(booking.getItem().getId()).tree;
+                    if (tree.findOverlap(booking.getStartTime(), booking.getEndTime(), null) != null) {
+                        conflicts.put(booking, BookingTimeConflictException.getFromItemIdAndDates(
+                                booking.getItem().getId(), booking.getStartTime(), booking.getEndTime()));
+                        continue;
+                    }
+                    tree.add(--pendingId, booking.getStartTime(), booking.getEndTime());
+                    accepted.add(booking);
+                }
+            } finally {
+                removePending(accepted, locked);
+            }
+            if (!accepted.isEmpty()) {
+                saveAll.accept(accepted);
+            }
+            for (Booking saved : accepted) {
+                ItemIntervals intervals = locked.get(saved.getItem().getId());
+                Booking previous = intervals.put(saved);
+                runAfterRollback(() -> intervals.restore(saved, previous));
+            }
+            return conflicts;
+        } finally {
+            unlockItems(locked);
+        }
+    }
+
+    /**
+     * Takes out the placeholders {@link #checkAndSaveAll} put for accepted bookings, which were
+     * numbered -1, -2 and so on in order.
+     */
+    private static void removePending(List<Booking> accepted, Map<Long, ItemIntervals> locked) {
+        long pendingId = 0;
+        for (Booking booking : accepted) {
+            locked.get(booking.getItem().getId()).tree.remove(--pendingId, booking.getStartTime());
+        }
+    }
+
+    /**
+     * Batch counterpart of {@link #checkAndSave} for status changes of stored bookings. Locks the items
+     * of all bookings in id order and leaves out the bookings that would overlap a stored one or an
+     * earlier booking of the batch. The rest go to {@code update}, which returns those it actually
+     * changed: only these are recorded, the others are put back as they were. Returns the left out
+     * bookings with their conflicts.
+     */
+    public Map<Booking, BookingTimeConflictException> checkAndUpdateAll(List<Booking> bookings,
+                                                                        UnaryOperator<List<Booking>> update) {
+        SortedMap<Long, ItemIntervals> locked = lockItems(bookings);
+        try {
+            Map<Booking, BookingTimeConflictException> conflicts = new IdentityHashMap<>();
+            Map<Booking, Booking> previous = new IdentityHashMap<>();
+            List<Booking> accepted = new ArrayList<>();
+            for (Booking booking : bookings) {
+                ItemIntervals intervals = locked.get(booking.getItem().getId());
+                if (ACTIVE_STATUSES.contains(booking.getStatus()) && intervals.tree.findOverlap(
+                        booking.getStartTime(), booking.getEndTime(), booking.getId()) != null) {
+                    conflicts.put(booking, BookingTimeConflictException.getFromItemIdAndDates(
+                            booking.getItem().getId(), booking.getStartTime(), booking.getEndTime()));
+                    continue;
+                }
+                previous.put(booking, intervals.put(booking));
+                accepted.add(booking);
+            }
+            Set<Booking> updated = Collections.newSetFromMap(new IdentityHashMap<>());
+            try {
+                if (!accepted.isEmpty()) {
+                    updated.addAll(update.apply(accepted));
+                }
+            } finally {
+                for (Booking booking : accepted) {
+                    ItemIntervals intervals = locked.get(booking.getItem().getId());
+                    Booking replaced = previous.get(booking);
+                    if (updated.contains(booking)) {
+                        runAfterRollback(() -> intervals.restore(booking, replaced));
+                    } else {
+                        intervals.restore(booking, replaced);
+                    }
+                }
+            }
+            return conflicts;
+        } finally {
+            unlockItems(locked);
+        }
+    }
+
+    /**
+     * Locks the items of the given bookings in id order and brings their trees up to date.
+     */
+    private SortedMap<Long, ItemIntervals> lockItems(List<Booking> bookings) {
+        SortedMap<Long, ItemIntervals> locked = new TreeMap<>();
+        bookings.forEach(booking -> locked.computeIfAbsent(booking.getItem().getId(),
+                itemId -> items.computeIfAbsent(itemId, id -> new ItemIntervals())));
+        locked.values().forEach(intervals -> intervals.lock.lock());
+        try {
+            LocalDateTime time = now();
+            locked.forEach((itemId, intervals) -> {
+                intervals.loadIfNeeded(itemId);
+                intervals.removeEnded(time);
+            });
+        } catch (RuntimeException ex) {
+            unlockItems(locked);
+            throw ex;
+        }
+        return locked;
+    }
+
+    private static void unlockItems(SortedMap<Long, ItemIntervals> locked) {
+        List<ItemIntervals> lockOrder = new ArrayList<>(locked.values());
+        Collections.reverse(lockOrder);
+        lockOrder.forEach(intervals -> intervals.lock.unlock());
+    }
+
+    private class ItemIntervals {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final BookingIntervalTree tree = new BookingIntervalTree();
+        private final Map<Long, Booking> bookings = new HashMap<>();
+        private final PriorityQueue<Booking> byEndTime =
+                new PriorityQueue<>(Comparator.comparing(Booking::getEndTime));
+        private boolean loaded;
+
+        private void loadIfNeeded(Long itemId) {
+            if (loaded) {
+                return;
+            }
+            bookingRepository.findAllByItemIdAndStatusIn(itemId, ACTIVE_STATUSES).forEach(this::put);
+            loaded = true;
+            log.debug("Booking intervals of item ID_{} loaded: {}.", itemId, tree.size());
+        }
+
+        private Booking put(Booking booking) {
+            Booking previous = remove(booking.getId());
+            if (ACTIVE_STATUSES.contains(booking.getStatus())) {
+                Booking interval = copyInterval(booking);
+                tree.add(interval.getId(), interval.getStartTime(), interval.getEndTime());
+                bookings.put(interval.getId(), interval);
+                byEndTime.add(interval);
+            }
+            return previous;
+        }
+
+        /**
+         * Drops the intervals that end by {@code time}. Queued intervals replaced since are skipped.
+         */
+        private void removeEnded(LocalDateTime time) {
+            while (!byEndTime.isEmpty() && !byEndTime.peek().getEndTime().isAfter(time)) {
+                Booking ended = byEndTime.poll();
+                if (bookings.get(ended.getId()) == ended) {
+                    remove(ended.getId());
+                }
+            }
+        }
+
+        private Booking remove(Long bookingId) {
+            Booking previous = bookings.remove(bookingId);
+            if (previous != null) {
+                tree.remove(previous.getId(), previous.getStartTime());
+            }
+            return previous;
+        }
+
+        private void restore(Booking saved, Booking previous) {
+            lock.lock();
+            try {
+                remove(saved.getId());
+                if (previous != null) {
+                    put(previous);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private Booking copyInterval(Booking booking) {
+            return Booking.builder()
+                    .id(booking.getId())
+                    .startTime(booking.getStartTime())
+                    .endTime(booking.getEndTime())
+                    .status(booking.getStatus())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.booking.service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Treap of half-open {@code [start, end)} booking intervals ordered by start and id, where every
+ * node keeps the latest end of its subtree. An overlap lookup only descends into subtrees that can
+ * still reach the queried interval, so it takes O(log n) expected time. Not thread safe.
+ */
+final class BookingIntervalTree {
+    private Node root;
+    private int size;
+
+    void add(Long id, LocalDateTime start, LocalDateTime end) {
+        Node[] parts = split(root, start, id);
+        root = merge(merge(parts[0], new Node(id, start, end)), parts[1]);
+        size++;
+    }
+
+    void remove(Long id, LocalDateTime start) {
+        Node[] lower = split(root, start, id);
+        Node[] upper = split(lower[1], start, id + 1);
+        if (upper[0] != null) {
+            size--;
+        }
+        root = merge(lower[0], upper[1]);
+    }
+
+    /**
+     * Returns the id of a stored interval overlapping {@code [start, end)} other than {@code excludedId},
+     * or null if there is none.
+     */
+    Long findOverlap(LocalDateTime start, LocalDateTime end, Long excludedId) {
+        return findOverlap(root, start, end, excludedId);
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static Long findOverlap(Node node, LocalDateTime start, LocalDateTime end, Long excludedId) {
+        if (node == null || !node.maxEnd.isAfter(start)) {
+            return null;
+        }
+        Long found = findOverlap(node.left, start, end, excludedId);
+        if (found != null) {
+            return found;
+        }
+        if (!node.start.isBefore(end)) {
+            return null;
+        }
+        if (node.end.isAfter(start) && !node.id.equals(excludedId)) {
+            return node.id;
+        }
+        return findOverlap(node.right, start, end, excludedId);
+    }
+
+    /**
+     * Splits the tree into nodes ordered before (start, id) and the rest.
+     */
+    private static Node[] split(Node node, LocalDateTime start, Long id) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (node.isBefore(start, id)) {
+            Node[] parts = split(node.right, start, id);
+            node.right = parts[0];
+            node.update();
+            return new Node[]{node, parts[1]};
+        }
+        Node[] parts = split(node.left, start, id);
+        node.left = parts[1];
+        node.update();
+        return new Node[]{parts[0], node};
+    }
+
+    private static Node merge(Node lower, Node upper) {
+        if (lower == null) {
+            return upper;
+        }
+        if (upper == null) {
+            return lower;
+        }
+        if (lower.priority > upper.priority) {
+            lower.right = merge(lower.right, upper);
+            lower.update();
+            return lower;
+        }
+        upper.left = merge(lower, upper.left);
+        upper.update();
+        return upper;
+    }
+
+    private static final class Node {
+        private final Long id;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private LocalDateTime maxEnd;
+        private Node left;
+        private Node right;
+
+        private Node(Long id, LocalDateTime start, LocalDateTime end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+
+        private boolean isBefore(LocalDateTime otherStart, Long otherId) {
+            int byStart = start.compareTo(otherStart);
+            return byStart < 0 || (byStart == 0 && id < otherId);
+        }
+
+        private void update() {
+            maxEnd = end;
+            if (left != null && left.maxEnd.isAfter(maxEnd)) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.isAfter(maxEnd)) {
+                maxEnd = right.maxEnd;
+            }
+        }
+    }
+}
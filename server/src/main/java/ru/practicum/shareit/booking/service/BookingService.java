@@ -1,15 +1,20 @@
 package ru.practicum.shareit.booking.service;
 
+import org.springframework.data.domain.Slice;
 import ru.practicum.shareit.booking.dto.BookingCreationRequestDto;
+import ru.practicum.shareit.booking.dto.BookingCreationResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStatsDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateResultDto;
 import ru.practicum.shareit.booking.exception.*;
-import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.repository.model.Booking;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static ru.practicum.shareit.booking.repository.model.Booking.Status.APPROVED;
 
@@ -26,12 +31,6 @@ public interface BookingService {
         }
     }
 
-    static void checkBookingExistsById(BookingRepository bookingRepository, Long bookingId) {
-        if (!bookingRepository.existsById(bookingId)) {
-            throw BookingNotFoundException.getFromBookingId(bookingId);
-        }
-    }
-
     static void checkBookingStatusNotApprove(Booking booking) {
         if (booking.getStatus() == APPROVED) {
             throw BookingAlreadyApprovedException.getFromBookingId(booking.getId());
@@ -59,26 +58,41 @@ public interface BookingService {
         }
     }
 
-    static void checkOwnerOrBooker(Booking booking, Long userId) {
-        Long ownerId = booking.getItem().getOwner().getId();
-        Long bookerId = booking.getBooker().getId();
-
+    static void checkOwnerOrBooker(Long bookingId, Long ownerId, Long bookerId, Long userId) {
         boolean isOwner = ownerId.equals(userId);
         boolean isBooker = bookerId.equals(userId);
 
         if (!isOwner && !isBooker) {
-            throw BookingNotFoundException.getFromBookingIdAndUserId(booking.getId(), userId);
+            throw BookingNotFoundException.getFromBookingIdAndUserId(bookingId, userId);
         }
     }
 
     BookingDto addBooking(BookingCreationRequestDto bookingDto, Long userId);
 
+    List<BookingCreationResultDto> addBookings(List<BookingCreationRequestDto> bookingDtos, Long userId);
+
     BookingDto updateBookingStatus(Long bookingId, Boolean approved, Long userId);
 
+    List<BookingStatusUpdateResultDto> updateBookingStatuses(List<BookingStatusUpdateDto> updates, Long userId);
+
     BookingDto getBooking(Long bookingId, Long userId);
 
+    String getBookingEtag(Long bookingId, Long userId);
+
     List<BookingDto> getAllByBookerId(BookingGetRequest request);
 
     List<BookingDto> getAllByBookerItems(BookingGetRequest request);
 
+    Slice<BookingDto> getSliceByBookerId(BookingGetRequest request);
+
+    Slice<BookingDto> getSliceByBookerItems(BookingGetRequest request);
+
+    BookingStatsDto getStatsByBookerId(Long bookerId);
+
+    BookingStatsDto getStatsByBookerItems(Long ownerId);
+
+    void streamAllByBookerId(BookingGetRequest request, Consumer<BookingDto> action);
+
+    void streamAllByBookerItems(BookingGetRequest request, Consumer<BookingDto> action);
+
 }
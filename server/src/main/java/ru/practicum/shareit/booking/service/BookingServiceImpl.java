@@ -1,295 +1,414 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingCreationRequestDto;
+import ru.practicum.shareit.booking.dto.BookingCreationResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
-import ru.practicum.shareit.booking.exception.IncorrectStateException;
+import ru.practicum.shareit.booking.dto.BookingStatsDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateDto;
+import ru.practicum.shareit.booking.dto.BookingStatusUpdateResultDto;
+import ru.practicum.shareit.booking.exception.BookingAlreadyApprovedException;
+import ru.practicum.shareit.booking.exception.BookingLogicException;
+import ru.practicum.shareit.booking.exception.BookingNotFoundException;
+import ru.practicum.shareit.booking.exception.BookingTimeConflictException;
 import ru.practicum.shareit.booking.mapper.BookingDtoMapper;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingVersionView;
 import ru.practicum.shareit.booking.repository.model.Booking;
 import ru.practicum.shareit.booking.repository.model.Booking.Status;
+import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.exception.IncorrectDataException;
+import ru.practicum.shareit.exception.LogicException;
+import ru.practicum.shareit.item.exception.ItemNotFoundException;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.mapper.ItemDtoMapper;
 import ru.practicum.shareit.user.mapper.UserDtoMapper;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utills.ETags;
+import ru.practicum.shareit.utills.EntityResolver;
+import ru.practicum.shareit.utills.EntityStreams;
 
+import javax.persistence.EntityManager;
 import javax.validation.Valid;
-import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static java.time.LocalDateTime.now;
 import static ru.practicum.shareit.booking.service.BookingService.*;
-import static ru.practicum.shareit.item.service.ItemService.checkItemExistsById;
 import static ru.practicum.shareit.item.service.ItemService.checkOwnerOfItemByItemIdAndUserId;
-import static ru.practicum.shareit.user.service.UserService.checkUserExistsById;
 
 @Service
 @Slf4j
 @Transactional
 public class BookingServiceImpl implements BookingService {
+    private static final int DEFAULT_SLICE_SIZE = 10;
+
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingDtoMapper bookingDtoMapper;
     private final UserDtoMapper userDtoMapper;
     private final ItemDtoMapper itemDtoMapper;
+    private final EntityManager entityManager;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemBookingSummaryProjection itemBookingSummaryProjection;
+    private final EntityResolver entityResolver;
+    private final BookingCache bookingCache;
 
     public BookingServiceImpl(BookingRepository bookingRepository,
-                              UserRepository userRepository,
                               ItemRepository itemRepository,
                               BookingDtoMapper bookingDtoMapper,
                               UserDtoMapper userDtoMapper,
-                              ItemDtoMapper itemDtoMapper) {
+                              ItemDtoMapper itemDtoMapper,
+                              EntityManager entityManager,
+                              BookingIntervalIndex bookingIntervalIndex,
+                              ItemBookingSummaryProjection itemBookingSummaryProjection,
+                              EntityResolver entityResolver,
+                              BookingCache bookingCache) {
         this.bookingRepository = bookingRepository;
-        this.userRepository = userRepository;
         this.itemRepository = itemRepository;
         this.bookingDtoMapper = bookingDtoMapper;
         this.userDtoMapper = userDtoMapper;
         this.itemDtoMapper = itemDtoMapper;
+        this.entityManager = entityManager;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.itemBookingSummaryProjection = itemBookingSummaryProjection;
+        this.entityResolver = entityResolver;
+        this.bookingCache = bookingCache;
     }
 
     @Override
     public BookingDto addBooking(BookingCreationRequestDto bookingDto, Long userId) {
-        checkUserExistsById(userRepository, userId);
-        checkItemExistsById(itemRepository, bookingDto.getItemId());
+        entityResolver.getUser(userId);
+        entityResolver.getItem(bookingDto.getItemId());
         checkUserNotOwnerByItemIdAndUserId(itemRepository, bookingDto.getItemId(), userId);
         checkBookingTimePeriod(bookingDto.getStart(), bookingDto.getEnd());
 
         Booking booking = bookingDtoMapper.toBooking(bookingDto, userId);
         checkItemAvailableForBooking(booking.getItem());
 
-        Booking savedBooking = bookingRepository.save(booking);
+        Booking savedBooking = bookingIntervalIndex.checkAndSave(booking, () -> bookingRepository.save(booking));
+        itemBookingSummaryProjection.refresh(List.of(savedBooking.getItem().getId()));
         log.debug("Booking ID_{} added.", savedBooking.getId());
 
         return bookingDtoMapper.toBookingDto(savedBooking, userDtoMapper, itemDtoMapper);
     }
 
     @Override
-    public BookingDto updateBookingStatus(Long bookingId, Boolean approved, Long userId) {
-        checkBookingExistsById(bookingRepository, bookingId);
-        checkUserExistsById(userRepository, userId);
+    public List<BookingCreationResultDto> addBookings(List<BookingCreationRequestDto> bookingDtos, Long userId) {
+        User booker = entityResolver.getUser(userId);
+        Set<Long> itemIds = bookingDtos.stream()
+                .map(BookingCreationRequestDto::getItemId)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllWithOwnerByIdIn(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        List<BookingCreationResultDto> results = new ArrayList<>(bookingDtos.size());
+        List<Booking> bookings = new ArrayList<>();
+        List<BookingCreationResultDto> bookingResults = new ArrayList<>();
+        for (BookingCreationRequestDto bookingDto : bookingDtos) {
+            BookingCreationResultDto result = new BookingCreationResultDto();
+            results.add(result);
+            try {
+                bookings.add(toNewBooking(bookingDto, items.get(bookingDto.getItemId()), booker));
+                bookingResults.add(result);
+            } catch (EntityNotFoundException | IncorrectDataException | LogicException ex) {
+                result.setError(ex.getMessage());
+            }
+        }
 
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow();
-        checkOwnerOfItemByItemIdAndUserId(itemRepository, booking.getItem().getId(), userId);
-        checkBookingStatusNotApprove(booking);
+        Map<Booking, BookingTimeConflictException> conflicts =
+                bookingIntervalIndex.checkAndSaveAll(bookings, bookingRepository::insertAll);
+        for (int i = 0; i < bookings.size(); i++) {
+            Booking booking = bookings.get(i);
+            if (conflicts.containsKey(booking)) {
+                bookingResults.get(i).setError(conflicts.get(booking).getMessage());
+            } else {
+                bookingResults.get(i).setBooking(bookingDtoMapper.toBookingDto(booking, userDtoMapper, itemDtoMapper));
+            }
+        }
+        itemBookingSummaryProjection.refresh(bookings.stream()
+                .filter(booking -> !conflicts.containsKey(booking))
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet()));
+        log.debug("{} bookings of user ID_{} added.", bookings.size() - conflicts.size(), userId);
+        return results;
+    }
 
-        booking.setStatus((approved == Boolean.TRUE) ? (Status.APPROVED) : (Status.REJECTED));
+    @Override
+    public BookingDto updateBookingStatus(Long bookingId, Boolean approved, Long userId) {
+        Status status = (approved == Boolean.TRUE) ? (Status.APPROVED) : (Status.REJECTED);
+        if (bookingRepository.updateStatusByItemOwnerId(bookingId, userId, status, Status.APPROVED) == 0) {
+            throw getStatusUpdateFailure(bookingId, userId);
+        }
 
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId).orElseThrow();
+        Booking updatedBooking = bookingIntervalIndex.checkAndSave(booking, () -> booking);
+        itemBookingSummaryProjection.refresh(List.of(updatedBooking.getItem().getId()));
+        bookingCache.evict(List.of(bookingId));
         log.debug("Booking ID_{} updated.", bookingId);
-        Booking updatedBooking = bookingRepository.save(booking);
 
         return bookingDtoMapper.toBookingDto(updatedBooking, userDtoMapper, itemDtoMapper);
     }
 
+    @Override
+    public List<BookingStatusUpdateResultDto> updateBookingStatuses(List<BookingStatusUpdateDto> updates,
+                                                                    Long userId) {
+        entityResolver.checkUserExists(userId);
+
+        Set<Long> bookingIds = updates.stream()
+                .map(BookingStatusUpdateDto::getBookingId)
+                .collect(Collectors.toSet());
+        Map<Long, Booking> bookings = bookingRepository.findWithItemAndBookerByIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        Map<Long, Status> statuses = new LinkedHashMap<>();
+        List<BookingStatusUpdateResultDto> results = new ArrayList<>(updates.size());
+        for (BookingStatusUpdateDto update : updates) {
+            results.add(applyStatusUpdate(update, bookings.get(update.getBookingId()), userId, statuses));
+        }
+
+        List<Booking> changed = statuses.entrySet().stream()
+                .map(entry -> withStatus(bookings.get(entry.getKey()), entry.getValue()))
+                .collect(Collectors.toList());
+        Map<Booking, BookingTimeConflictException> conflicts = bookingIntervalIndex.checkAndUpdateAll(changed,
+                accepted -> updateStatuses(accepted, results));
+        conflicts.forEach((booking, ex) -> markFailed(results, booking.getId(), ex));
+        itemBookingSummaryProjection.refresh(statuses.keySet().stream()
+                .map(bookingId -> bookings.get(bookingId).getItem().getId())
+                .collect(Collectors.toSet()));
+        bookingCache.evict(statuses.keySet());
+        log.debug("Statuses of {} bookings of owner ID_{} updated.", statuses.size(), userId);
+        return results;
+    }
+
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "booking", key = "#bookingId")
     public BookingDto getBooking(Long bookingId, Long userId) {
-        checkBookingExistsById(bookingRepository, bookingId);
-        checkUserExistsById(userRepository, userId);
+        entityResolver.checkUserExists(userId);
+        BookingCache.Entry cached = bookingCache.get(bookingId);
+        BookingDto booking = cached.getBooking();
+        checkOwnerOrBooker(bookingId, cached.getOwnerId(), booking.getBooker().getId(), userId);
 
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow();
-        checkOwnerOrBooker(booking, userId);
+        log.debug("Booking ID_{} returned.", bookingId);
+        return booking;
+    }
 
-        log.debug("Booking ID_{} returned.", booking.getId());
-        return bookingDtoMapper.toBookingDto(booking, userDtoMapper, itemDtoMapper);
+    @Override
+    @Transactional(readOnly = true)
+    public String getBookingEtag(Long bookingId, Long userId) {
+        BookingVersionView version = bookingRepository.findVersionById(bookingId)
+                .orElseThrow(() -> BookingNotFoundException.getFromBookingId(bookingId));
+        entityResolver.checkUserExists(userId);
+        checkOwnerOrBooker(bookingId, version.getOwnerId(), version.getBookerId(), userId);
+        return ETags.of(bookingId, version.getVersion(), version.getItemVersion());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<BookingDto> getAllByBookerId(@Valid BookingGetRequest request) {
-        checkUserExistsById(userRepository, request.getUserId());
-        boolean isPagination = checkIsPagination(request.getFrom(), request.getSize());
-
+        entityResolver.checkUserExists(request.getUserId());
         State state = checkState(request.getPossibleState());
-        switch (state) {
-            case ALL:
-                return bookingDtoMapper.toBookingDto(getBookingsByAllState(isPagination, request),
-                        userDtoMapper, itemDtoMapper);
-            case CURRENT:
-                return bookingDtoMapper.toBookingDto(getBookingsByCurrentState(isPagination, request),
-                        userDtoMapper, itemDtoMapper);
-            case PAST:
-                return bookingDtoMapper.toBookingDto(getBookingsByPastState(isPagination, request),
-                        userDtoMapper, itemDtoMapper);
-            case FUTURE:
-                return bookingDtoMapper.toBookingDto(getBookingsByFutureState(isPagination, request),
-                        userDtoMapper, itemDtoMapper);
-            case WAITING:
-                return bookingDtoMapper.toBookingDto(getBookingsByWaitingState(isPagination, request),
-                        userDtoMapper, itemDtoMapper);
-            case REJECTED:
-                return bookingDtoMapper.toBookingDto(getBookingsByRejectedState(isPagination, request),
-                        userDtoMapper, itemDtoMapper);
-            default:
-                throw IncorrectStateException.getFromIncorrectState(request.getPossibleState());
-        }
+
+        List<Booking> bookings = bookingRepository.findByBookerId(request.getUserId(), state, now(),
+                getPageable(request, Sort.unsorted()));
+        return bookingDtoMapper.toBookingDto(bookings, userDtoMapper, itemDtoMapper);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<BookingDto> getAllByBookerItems(BookingGetRequest request) {
-        checkUserExistsById(userRepository, request.getUserId());
-        boolean isPagination = checkIsPagination(request.getFrom(), request.getSize());
-
+        entityResolver.checkUserExists(request.getUserId());
         State state = checkState(request.getPossibleState());
-        switch (state) {
-            case ALL:
-                return bookingDtoMapper.toBookingDto(getBookingsByOwnerWithAllState(isPagination, request),
-                        userDtoMapper, itemDtoMapper);
-            case CURRENT:
-                return bookingDtoMapper.toBookingDto(getBookingsByOwnerWithCurrentState(isPagination, request),
-                        userDtoMapper, itemDtoMapper);
-            case PAST:
-                return bookingDtoMapper.toBookingDto(getBookingsByOwnerWithPastState(isPagination, request),
-                        userDtoMapper, itemDtoMapper);
-            case FUTURE:
-                return bookingDtoMapper.toBookingDto(getBookingsByOwnerWithFutureState(isPagination, request),
-                        userDtoMapper, itemDtoMapper);
-            case WAITING:
-                return bookingDtoMapper.toBookingDto(getBookingsByOwnerWithWaitingState(isPagination, request),
-                        userDtoMapper, itemDtoMapper);
-            case REJECTED:
-                return bookingDtoMapper.toBookingDto(getBookingsByOwnerWithRejectedState(isPagination, request),
-                        userDtoMapper, itemDtoMapper);
-            default:
-                throw IncorrectStateException.getFromIncorrectState(request.getPossibleState());
-        }
-    }
-
-    private List<Booking> getBookingsByAllState(boolean isPagination, BookingGetRequest request) {
-        return (isPagination) ?
-                getAllBookingsByBookerIdWithPagination(request.getUserId(),
-                        prepareFrom(request.getFrom()), request.getSize()) :
-                getAllBookingsByBookerId(request.getUserId());
-    }
-
-    private List<Booking> getBookingsByCurrentState(boolean isPagination, BookingGetRequest request) {
-        return (isPagination) ? getCurrentBookingsByBookerIdWithPagination(request.getUserId(),
-                prepareFrom(request.getFrom()), request.getSize()) :
-                getCurrentBookingsByBookerId(request.getUserId());
-    }
-
-    private List<Booking> getBookingsByPastState(boolean isPagination, BookingGetRequest request) {
-        return (isPagination) ? getPastBookingsByBookerIdWithPagination(request.getUserId(),
-                prepareFrom(request.getFrom()), request.getSize()) :
-                getPastBookingsByBookerId(request.getUserId());
-    }
-
-    private List<Booking> getBookingsByFutureState(boolean isPagination, BookingGetRequest request) {
-        return (isPagination) ? getFutureBookingsByBookerIdWithPagination(request.getUserId(),
-                prepareFrom(request.getFrom()), request.getSize()) :
-                getFutureBookingsByBookerId(request.getUserId());
-    }
-
-    private List<Booking> getBookingsByWaitingState(boolean isPagination, BookingGetRequest request) {
-        return (isPagination) ? getWaitingBookingsByBookerIdWithPagination(request.getUserId(),
-                prepareFrom(request.getFrom()), request.getSize()) :
-                getWaitingBookingsByBookerId(request.getUserId());
-    }
-
-    private List<Booking> getBookingsByRejectedState(boolean isPagination, BookingGetRequest request) {
-        return (isPagination) ? getRejectedBookingsByBookerIdWithPagination(request.getUserId(),
-                prepareFrom(request.getFrom()), request.getSize()) :
-                getRejectedBookingsByBookerId(request.getUserId());
-    }
-
-    private List<Booking> getBookingsByOwnerWithAllState(boolean isPagination, BookingGetRequest request) {
-        return (isPagination) ? getAllBookingsByOwnerIdWithPagination(request.getUserId(),
-                prepareFrom(request.getFrom()), request.getSize()) :
-                getAllBookingsByOwnerId(request.getUserId());
-    }
 
-    private List<Booking> getBookingsByOwnerWithCurrentState(boolean isPagination, BookingGetRequest request) {
-        return (isPagination) ? getCurrentBookingsByOwnerIdWithPagination(request.getUserId(),
-                prepareFrom(request.getFrom()), request.getSize()) :
-                getCurrentBookingsByOwnerId(request.getUserId());
+        Sort sort = (state == State.ALL) ? Sort.by(Sort.Direction.ASC, "startTime") : Sort.unsorted();
+        List<Booking> bookings = bookingRepository.findByItemOwnerId(request.getUserId(), state, now(),
+                getPageable(request, sort));
+        return bookingDtoMapper.toBookingDto(bookings, userDtoMapper, itemDtoMapper);
     }
 
-    private List<Booking> getBookingsByOwnerWithPastState(boolean isPagination, BookingGetRequest request) {
-        return (isPagination) ? getPastBookingsByOwnerIdWithPagination(request.getUserId(),
-                prepareFrom(request.getFrom()), request.getSize()) :
-                getPastBookingsByOwnerId(request.getUserId());
-    }
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<BookingDto> getSliceByBookerId(BookingGetRequest request) {
+        entityResolver.checkUserExists(request.getUserId());
+        State state = checkState(request.getPossibleState());
 
-    private List<Booking> getBookingsByOwnerWithFutureState(boolean isPagination, BookingGetRequest request) {
-        return (isPagination) ? getFutureBookingsByOwnerIdWithPagination(request.getUserId(),
-                prepareFrom(request.getFrom()), request.getSize()) :
-                getFutureBookingsByOwnerId(request.getUserId());
+        Slice<Booking> bookings = bookingRepository.findSliceByBookerId(request.getUserId(), state, now(),
+                getCursor(request), getSliceSize(request));
+        log.debug("Slice of {} bookings of user ID_{} returned.", bookings.getNumberOfElements(), request.getUserId());
+        return bookings.map(booking -> bookingDtoMapper.toBookingDto(booking, userDtoMapper, itemDtoMapper));
     }
 
-    private List<Booking> getBookingsByOwnerWithWaitingState(boolean isPagination, BookingGetRequest request) {
-        return (isPagination) ? getWaitingBookingsByOwnerIdWithPagination(request.getUserId(),
-                prepareFrom(request.getFrom()), request.getSize()) :
-                getWaitingBookingsByOwnerId(request.getUserId());
-    }
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<BookingDto> getSliceByBookerItems(BookingGetRequest request) {
+        entityResolver.checkUserExists(request.getUserId());
+        State state = checkState(request.getPossibleState());
 
-    private List<Booking> getBookingsByOwnerWithRejectedState(boolean isPagination, BookingGetRequest request) {
-        return (isPagination) ? getRejectedBookingsByOwnerIdWithPagination(request.getUserId(),
-                prepareFrom(request.getFrom()), request.getSize()) :
-                getRejectedBookingsByOwnerId(request.getUserId());
+        Slice<Booking> bookings = bookingRepository.findSliceByItemOwnerId(request.getUserId(), state, now(),
+                getCursor(request), getSliceSize(request));
+        log.debug("Slice of {} bookings of the items of user ID_{} returned.", bookings.getNumberOfElements(),
+                request.getUserId());
+        return bookings.map(booking -> bookingDtoMapper.toBookingDto(booking, userDtoMapper, itemDtoMapper));
     }
 
-
-    private List<Booking> getAllBookingsByBookerId(Long bookerId) {
-        return bookingRepository.findBookingByBookerIdOrderByStartTimeDesc(bookerId);
+    @Override
+    @Transactional(readOnly = true)
+    public BookingStatsDto getStatsByBookerId(Long bookerId) {
+        entityResolver.checkUserExists(bookerId);
+        log.debug("Booking stats of user ID_{} returned.", bookerId);
+        return bookingRepository.countByBookerIdPerState(bookerId, now());
     }
 
-    private List<Booking> getCurrentBookingsByBookerId(Long bookerId) {
-        LocalDateTime time = now();
-        return bookingRepository.findBookingByBookerIdAndStartTimeIsBeforeAndEndTimeIsAfter(bookerId, time, time);
+    @Override
+    @Transactional(readOnly = true)
+    public BookingStatsDto getStatsByBookerItems(Long ownerId) {
+        entityResolver.checkUserExists(ownerId);
+        log.debug("Booking stats of the items of user ID_{} returned.", ownerId);
+        return bookingRepository.countByItemOwnerIdPerState(ownerId, now());
     }
 
-    private List<Booking> getPastBookingsByBookerId(Long bookerId) {
-        return bookingRepository.findAllByBookerIdAndEndTimeIsBeforeOrderByStartTimeDesc(bookerId, now());
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllByBookerId(BookingGetRequest request, Consumer<BookingDto> action) {
+        entityResolver.checkUserExists(request.getUserId());
+        State state = checkState(request.getPossibleState());
+        EntityStreams.forEach(bookingRepository.streamByBookerId(request.getUserId(), state, now()), entityManager,
+                booking -> action.accept(bookingDtoMapper.toBookingDto(booking, userDtoMapper, itemDtoMapper)));
+        log.debug("Bookings of user ID_{} in state {} streamed.", request.getUserId(), state);
     }
 
-    private List<Booking> getFutureBookingsByBookerId(Long bookerId) {
-        return bookingRepository.findBookingsByBookerIdAndStartTimeIsAfterOrderByStartTimeDesc(bookerId, now());
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllByBookerItems(BookingGetRequest request, Consumer<BookingDto> action) {
+        entityResolver.checkUserExists(request.getUserId());
+        State state = checkState(request.getPossibleState());
+        EntityStreams.forEach(bookingRepository.streamByItemOwnerId(request.getUserId(), state, now()), entityManager,
+                booking -> action.accept(bookingDtoMapper.toBookingDto(booking, userDtoMapper, itemDtoMapper)));
+        log.debug("Bookings of the items of user ID_{} in state {} streamed.", request.getUserId(), state);
     }
 
-    private List<Booking> getWaitingBookingsByBookerId(Long bookerId) {
-        return bookingRepository.findBookingsByBookerIdAndStatusEquals(bookerId, Status.WAITING);
-    }
+    /**
+     * Runs the checks of {@link #addBooking} against the item loaded for the whole batch.
+     */
+    private Booking toNewBooking(BookingCreationRequestDto bookingDto, Item item, User booker) {
+        if (item == null) {
+            throw ItemNotFoundException.getFromItemId(bookingDto.getItemId());
+        }
+        if (item.getOwner().getId().equals(booker.getId())) {
+            throw BookingLogicException.getFromOwnerIdAndItemId(booker.getId(), item.getId());
+        }
+        checkBookingTimePeriod(bookingDto.getStart(), bookingDto.getEnd());
+        checkItemAvailableForBooking(item);
+
+        Booking booking = new Booking();
+        booking.setStartTime(bookingDto.getStart());
+        booking.setEndTime(bookingDto.getEnd());
+        booking.setBooker(booker);
+        booking.setItem(item);
+        return booking;
+    }
+
+    /**
+     * Checks one entry of a batch status update against the bookings loaded for the whole batch.
+     * Accepted entries are recorded in {@code statuses}, which is also consulted for repeated ids. Overlaps
+     * are checked later for the final status of each booking.
+     */
+    private BookingStatusUpdateResultDto applyStatusUpdate(BookingStatusUpdateDto update, Booking booking,
+                                                           Long userId, Map<Long, Status> statuses) {
+        Long bookingId = update.getBookingId();
+        BookingStatusUpdateResultDto result = BookingStatusUpdateResultDto.builder().bookingId(bookingId).build();
+        if (booking == null) {
+            return markFailed(result, BookingNotFoundException.getFromBookingId(bookingId));
+        }
+        if (!booking.getItem().getOwner().getId().equals(userId)) {
+            return markFailed(result, ItemNotFoundException.getFromItemIdAndUserId(booking.getItem().getId(), userId));
+        }
+        if (statuses.getOrDefault(bookingId, booking.getStatus()) == Status.APPROVED) {
+            return markFailed(result, BookingAlreadyApprovedException.getFromBookingId(bookingId));
+        }
 
-    private List<Booking> getRejectedBookingsByBookerId(Long bookerId) {
-        return bookingRepository.findBookingsByBookerIdAndStatusEquals(bookerId, Status.REJECTED);
+        Status status = (update.getApproved() == Boolean.TRUE) ? (Status.APPROVED) : (Status.REJECTED);
+        statuses.put(bookingId, status);
+        result.setStatus(status);
+        return result;
+    }
+
+    /**
+     * Writes the accepted status changes of a batch and returns those that matched their row. The rest
+     * lost to a concurrent approve or reject and fail their entries.
+     */
+    private List<Booking> updateStatuses(List<Booking> changed, List<BookingStatusUpdateResultDto> results) {
+        Map<Long, Status> statuses = new LinkedHashMap<>();
+        changed.forEach(booking -> statuses.put(booking.getId(), booking.getStatus()));
+        int[] updatedRows = bookingRepository.updateStatuses(statuses);
+        List<Booking> updated = new ArrayList<>(changed.size());
+        for (int i = 0; i < updatedRows.length; i++) {
+            Booking booking = changed.get(i);
+            if (updatedRows[i] == 0) {
+                markFailed(results, booking.getId(), BookingAlreadyApprovedException.getFromBookingId(booking.getId()));
+            } else {
+                updated.add(booking);
+            }
+        }
+        return updated;
     }
 
-    private List<Booking> getAllBookingsByOwnerId(Long ownerId) {
-        return bookingRepository.findBookingsByItemOwnerIdOrderByStartTimeDesc(ownerId);
+    private Booking withStatus(Booking booking, Status status) {
+        return Booking.builder()
+                .id(booking.getId())
+                .startTime(booking.getStartTime())
+                .endTime(booking.getEndTime())
+                .item(booking.getItem())
+                .booker(booking.getBooker())
+                .status(status)
+                .build();
     }
 
-    private List<Booking> getCurrentBookingsByOwnerId(Long ownerId) {
-        LocalDateTime time = LocalDateTime.now();
-        return bookingRepository.findBookingsByItemOwnerIdAndStartTimeIsBeforeAndEndTimeIsAfter(ownerId, time, time);
+    private void markFailed(List<BookingStatusUpdateResultDto> results, Long bookingId, RuntimeException ex) {
+        results.stream()
+                .filter(result -> bookingId.equals(result.getBookingId()) && result.getError() == null)
+                .forEach(result -> markFailed(result, ex));
     }
 
-    private List<Booking> getPastBookingsByOwnerId(Long ownerId) {
-
-        return bookingRepository.findBookingsByItemOwnerIdAndEndTimeIsBeforeOrderByStartTimeDesc(ownerId, now());
+    private BookingStatusUpdateResultDto markFailed(BookingStatusUpdateResultDto result, RuntimeException ex) {
+        result.setStatus(null);
+        result.setError(ex.getMessage());
+        return result;
     }
 
-    private List<Booking> getFutureBookingsByOwnerId(Long ownerId) {
-        return bookingRepository.findBookingsByItemOwnerIdAndStartTimeIsAfterOrderByStartTimeDesc(ownerId, now());
+    /**
+     * Finds out why the conditional status update matched no row, in the order the checks used to run.
+     */
+    private RuntimeException getStatusUpdateFailure(Long bookingId, Long userId) {
+        Booking booking = entityResolver.getBooking(bookingId);
+        entityResolver.getUser(userId);
+        checkOwnerOfItemByItemIdAndUserId(itemRepository, booking.getItem().getId(), userId);
+        return BookingAlreadyApprovedException.getFromBookingId(bookingId);
     }
 
-    private List<Booking> getWaitingBookingsByOwnerId(Long ownerId) {
-        return bookingRepository.findBookingsByItemOwnerIdAndStatusEquals(ownerId, Status.WAITING);
+    private Pageable getPageable(BookingGetRequest request, Sort sort) {
+        if (!checkIsPagination(request.getFrom(), request.getSize())) {
+            return Pageable.unpaged();
+        }
+        return PageRequest.of(prepareFrom(request.getFrom()), request.getSize(), sort);
     }
 
-    private List<Booking> getRejectedBookingsByOwnerId(Long ownerId) {
-        return bookingRepository.findBookingsByItemOwnerIdAndStatusEquals(ownerId, Status.REJECTED);
+    private BookingCursor getCursor(BookingGetRequest request) {
+        return (request.getCursor() == null || request.getCursor().isBlank()) ?
+                null : BookingCursor.decode(request.getCursor());
     }
 
-    private List<Booking> getAllBookingsByOwnerIdWithPagination(Long ownerId, Integer from, Integer size) {
-        Pageable pageable = PageRequest.of(from, size);
-        return bookingRepository.findBookingsByItemOwnerIdOrderByStartTimeAsc(ownerId, pageable).getContent();
+    private int getSliceSize(BookingGetRequest request) {
+        return (request.getSize() != null) ? request.getSize() : DEFAULT_SLICE_SIZE;
     }
 
     private Integer prepareFrom(Integer from) {
@@ -302,77 +421,8 @@ public class BookingServiceImpl implements BookingService {
         return from - 2;
     }
 
-    private List<Booking> getCurrentBookingsByOwnerIdWithPagination(Long ownerId, Integer from, Integer size) {
-        LocalDateTime time = LocalDateTime.now();
-        Pageable pageable = PageRequest.of(from, size);
-        return bookingRepository.findBookingsByItemOwnerIdAndStartTimeIsBeforeAndEndTimeIsAfter(ownerId, time, time, pageable).getContent();
-    }
-
-    private List<Booking> getPastBookingsByOwnerIdWithPagination(Long ownerId, Integer from, Integer size) {
-        Pageable pageable = PageRequest.of(from, size);
-        return bookingRepository.findBookingsByItemOwnerIdAndEndTimeIsBeforeOrderByStartTimeDesc(ownerId, now(), pageable).getContent();
-    }
-
-    private List<Booking> getFutureBookingsByOwnerIdWithPagination(Long ownerId, Integer from, Integer size) {
-        Pageable pageable = PageRequest.of(from, size);
-        return bookingRepository.findBookingsByItemOwnerIdAndStartTimeIsAfterOrderByStartTimeDesc(ownerId, now(), pageable).getContent();
-    }
-
-    private List<Booking> getWaitingBookingsByOwnerIdWithPagination(Long ownerId, Integer from, Integer size) {
-        Pageable pageable = PageRequest.of(from, size);
-        return bookingRepository.findBookingsByItemOwnerIdAndStatusEquals(ownerId, Status.WAITING, pageable)
-                .getContent();
-    }
-
-    private List<Booking> getRejectedBookingsByOwnerIdWithPagination(Long ownerId, Integer from, Integer size) {
-        Pageable pageable = PageRequest.of(from, size);
-        return bookingRepository.findBookingsByItemOwnerIdAndStatusEquals(ownerId, Status.REJECTED, pageable)
-                .getContent();
-    }
-
-    private List<Booking> getAllBookingsByBookerIdWithPagination(Long bookerId, Integer from, Integer size) {
-        Pageable pageable = PageRequest.of(from, size);
-
-        return bookingRepository.findBookingByBookerIdOrderByStartTimeDesc(bookerId, pageable).getContent();
-    }
-
-    private List<Booking> getCurrentBookingsByBookerIdWithPagination(Long bookerId, Integer from, Integer size) {
-        LocalDateTime time = now();
-        Pageable pageable = PageRequest.of(from, size);
-
-        return bookingRepository.findBookingByBookerIdAndStartTimeIsBeforeAndEndTimeIsAfter(bookerId, time, time, pageable).getContent();
-    }
-
-    private List<Booking> getPastBookingsByBookerIdWithPagination(Long bookerId, Integer from, Integer size) {
-        Pageable pageable = PageRequest.of(from, size);
-
-        return bookingRepository.findAllByBookerIdAndEndTimeIsBeforeOrderByStartTimeDesc(bookerId, now(), pageable)
-                .getContent();
-    }
-
-    private List<Booking> getFutureBookingsByBookerIdWithPagination(Long bookerId, Integer from, Integer size) {
-        Pageable pageable = PageRequest.of(from, size);
-
-        return bookingRepository.findBookingsByBookerIdAndStartTimeIsAfterOrderByStartTimeDesc(bookerId, now(), pageable)
-                .getContent();
-    }
-
-    private List<Booking> getWaitingBookingsByBookerIdWithPagination(Long bookerId, Integer from, Integer size) {
-        Pageable pageable = PageRequest.of(from, size);
-
-        return bookingRepository.findBookingsByBookerIdAndStatusEquals(bookerId, Status.WAITING, pageable).getContent();
-    }
-
-    private List<Booking> getRejectedBookingsByBookerIdWithPagination(Long bookerId, Integer from, Integer size) {
-        Pageable pageable = PageRequest.of(from, size);
-
-        return bookingRepository.findBookingsByBookerIdAndStatusEquals(bookerId, Status.REJECTED, pageable)
-                .getContent();
-    }
-
     private boolean checkIsPagination(Integer from, Integer size) {
         return from != null && size != null;
     }
 
 }
-
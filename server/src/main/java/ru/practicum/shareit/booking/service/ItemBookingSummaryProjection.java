@@ -0,0 +1,109 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.ShortBookingDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.repository.model.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static java.time.LocalDateTime.now;
+
+/**
+ * Keeps {@link ItemBookingSummary} rows in step with bookings. Booking changes recompute the rows
+ * of their items in the same transaction, and a scheduled roll forward recomputes the rows whose
+ * bookings started or ended since. Reads recompute missing or expired rows on the fly, so they are
+ * always exact.
+ */
+@Component
+@Slf4j
+public class ItemBookingSummaryProjection {
+    private static final int ROLL_FORWARD_CHUNK_SIZE = 500;
+
+    private final BookingRepository bookingRepository;
+    private final ItemBookingSummaryRepository summaryRepository;
+
+    public ItemBookingSummaryProjection(BookingRepository bookingRepository,
+                                        ItemBookingSummaryRepository summaryRepository) {
+        this.bookingRepository = bookingRepository;
+        this.summaryRepository = summaryRepository;
+    }
+
+    public void create(Long itemId) {
+        summaryRepository.insertEmpty(itemId);
+    }
+
+    public void refresh(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        summaryRepository.updateAll(compute(itemIds, now()), null);
+        log.debug("Booking summaries of items {} refreshed.", itemIds);
+    }
+
+    public Map<Long, ItemBookingSummary> find(Collection<Long> itemIds, LocalDateTime time) {
+        Map<Long, ItemBookingSummary> summaries = summaryRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+        List<Long> staleIds = itemIds.stream()
+                .filter(itemId -> isStale(summaries.get(itemId), time))
+                .collect(Collectors.toList());
+        compute(staleIds, time).forEach(summary -> summaries.put(summary.getItemId(), summary));
+        return summaries;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.roll-forward-delay-ms:60000}")
+    @Transactional
+    public void rollForward() {
+        LocalDateTime time = now();
+        int added = summaryRepository.insertMissing(time);
+        int refreshed = 0;
+        Long afterItemId = 0L;
+        List<Long> expiredIds = summaryRepository.findExpiredItemIds(time, afterItemId,
+                PageRequest.of(0, ROLL_FORWARD_CHUNK_SIZE));
+        while (!expiredIds.isEmpty()) {
+            summaryRepository.updateAll(compute(expiredIds, time), time);
+            refreshed += expiredIds.size();
+            afterItemId = expiredIds.get(expiredIds.size() - 1);
+            expiredIds = summaryRepository.findExpiredItemIds(time, afterItemId,
+                    PageRequest.of(0, ROLL_FORWARD_CHUNK_SIZE));
+        }
+        if (added > 0 || refreshed > 0) {
+            log.debug("Booking summaries rolled forward: {} added, {} refreshed.", added, refreshed);
+        }
+    }
+
+    private static boolean isStale(ItemBookingSummary summary, LocalDateTime time) {
+        return summary == null || (summary.getValidUntil() != null && !summary.getValidUntil().isAfter(time));
+    }
+
+    private List<ItemBookingSummary> compute(Collection<Long> itemIds, LocalDateTime time) {
+        if (itemIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, ShortBookingDto> lastBookings = bookingRepository.findLastBookingsByItemIds(itemIds, time);
+        Map<Long, ShortBookingDto> nextBookings = bookingRepository.findNextBookingsByItemIds(itemIds, time);
+        Map<Long, LocalDateTime> boundaries = bookingRepository.findBookingBoundariesByItemIds(itemIds, time);
+        return itemIds.stream()
+                .map(itemId -> {
+                    ShortBookingDto last = lastBookings.get(itemId);
+                    ShortBookingDto next = nextBookings.get(itemId);
+                    return ItemBookingSummary.builder()
+                            .itemId(itemId)
+                            .lastBookingId((last == null) ? null : last.getId())
+                            .lastBookerId((last == null) ? null : last.getBookerId())
+                            .nextBookingId((next == null) ? null : next.getId())
+                            .nextBookerId((next == null) ? null : next.getBookerId())
+                            .validUntil(boundaries.get(itemId))
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+}
@@ -48,6 +48,13 @@ public class ErrorHandler {
         return ErrorResponse.getFromException(ex);
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse conflictExceptionHandler(final ConflictException ex) {
+        log.error("Conflict error: {}.", ex.getMessage());
+        return ErrorResponse.getFromException(ex);
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.CONFLICT)
     public ErrorResponse dataIntegrityViolationExceptionHandler(final DataIntegrityViolationException ex) {
@@ -1,14 +1,20 @@
 package ru.practicum.shareit.item.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.item.service.comment.CommentService;
+import ru.practicum.shareit.utills.NdjsonWriter;
 import ru.practicum.shareit.utills.UserHttpHeaders;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -18,6 +24,7 @@ import java.util.List;
 public class ItemController {
     private final ItemService itemService;
     private final CommentService commentService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ItemDto addItem(@RequestHeader(UserHttpHeaders.USER_ID) Long ownerId,
@@ -36,8 +43,13 @@ public class ItemController {
 
     @GetMapping("/{itemId}")
     public DetailedItemDto getItemById(@RequestHeader(UserHttpHeaders.USER_ID) Long userId,
-                                       @PathVariable Long itemId) {
+                                       @PathVariable Long itemId,
+                                       WebRequest webRequest) {
         log.info("Received a GET request for the endpoint /items/{itemId} with userId_{}", userId);
+        String etag = itemService.getItemEtag(itemId, userId);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
         return itemService.getItemByItemId(itemId, userId);
     }
 
@@ -49,14 +61,65 @@ public class ItemController {
         return itemService.getItemsByOwnerId(ownerId, from, size);
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamItemsByOwnerId(@RequestHeader(UserHttpHeaders.USER_ID) Long ownerId,
+                                     @RequestParam(required = false) Integer from,
+                                     @RequestParam(required = false) Integer size,
+                                     HttpServletResponse response) throws IOException {
+        log.info("Received a GET request for the endpoint /items with userId_{} with NDJSON streaming", ownerId);
+        NdjsonWriter<DetailedItemDto> writer = NdjsonWriter.of(response, objectMapper);
+        if (from != null && size != null) {
+            itemService.getItemsByOwnerId(ownerId, from, size).forEach(writer);
+            return;
+        }
+        itemService.streamItemsByOwnerId(ownerId, writer);
+    }
+
     @GetMapping("/search")
     public List<ItemDto> searchItemsByNameOrDescription(@RequestParam String text,
                                                         @RequestParam(required = false) Integer from,
-                                                        @RequestParam(required = false) Integer size) {
+                                                        @RequestParam(required = false) Integer size,
+                                                        @RequestParam(defaultValue = "false") Boolean ranked,
+                                                        @RequestParam(defaultValue = "false") Boolean fuzzy) {
         log.info("Received a GET request for the endpoint /items/search");
+        return searchItems(text, from, size, ranked, fuzzy);
+    }
+
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamItemsByNameOrDescription(@RequestParam String text,
+                                               @RequestParam(required = false) Integer from,
+                                               @RequestParam(required = false) Integer size,
+                                               @RequestParam(defaultValue = "false") Boolean ranked,
+                                               @RequestParam(defaultValue = "false") Boolean fuzzy,
+                                               HttpServletResponse response) throws IOException {
+        log.info("Received a GET request for the endpoint /items/search with NDJSON streaming");
+        NdjsonWriter<ItemDto> writer = NdjsonWriter.of(response, objectMapper);
+        if (ranked || (from != null && size != null)) {
+            searchItems(text, from, size, ranked, fuzzy).forEach(writer);
+        } else if (fuzzy) {
+            itemService.streamItemsFuzzy(text, writer);
+        } else {
+            itemService.streamItemsByNameOrDescription(text, writer);
+        }
+    }
+
+    private List<ItemDto> searchItems(String text, Integer from, Integer size, Boolean ranked, Boolean fuzzy) {
+        if (fuzzy) {
+            return itemService.searchItemsFuzzy(text, from, size);
+        }
+        if (ranked) {
+            return itemService.searchItemsByRelevance(text, from, size);
+        }
         return itemService.searchItemsByNameOrDescription(text, from, size);
     }
 
+    @GetMapping("/suggest")
+    public List<ShortItemDto> suggestItemNames(@RequestParam String prefix,
+                                               @RequestParam(required = false) Integer size) {
+        log.info("Received a GET request for the endpoint /items/suggest");
+        return itemService.suggestItemNames(prefix, size);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto addComment(@RequestHeader(UserHttpHeaders.USER_ID) Long userId,
                                  @RequestBody RequestCommentDto comment,
@@ -4,6 +4,9 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import ru.practicum.shareit.item.service.search.ItemTextAnalyzer;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
@@ -11,6 +14,8 @@ import javax.persistence.*;
 
 @Entity
 @Table(name = "items")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -38,4 +43,16 @@ public class Item {
     @JoinColumn(name = "request_id")
     private ItemRequest request;
 
+    @Column(name = "search_terms", length = 2400)
+    private String searchTerms;
+
+    @Version
+    private Long version;
+
+    @PrePersist
+    @PreUpdate
+    private void analyzeText() {
+        searchTerms = ItemTextAnalyzer.toSearchTerms(name, description);
+    }
+
 }
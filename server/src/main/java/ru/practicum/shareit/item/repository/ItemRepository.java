@@ -2,19 +2,71 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<Item> findByOwner_Id(Long ownerId);
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Page<Item> findByOwner_Id(Long ownerId, Pageable pageable);
 
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<Item> streamByOwner_IdOrderById(Long ownerId);
+
     List<Item> findByAvailableIsTrue();
 
-    List<Item> findAllByRequestId(Long requestId);
+    List<ItemTextView> findAllTextsByAvailableIsTrue();
+
+    @Query("select i from Item i " +
+            "where i.available = true " +
+            "and (lower(i.name) like concat('%', :pattern, '%') escape '!' " +
+            "or lower(i.description) like concat('%', :pattern, '%') escape '!' " +
+            "or i.searchTerms like :terms) " +
+            "order by i.id")
+    Slice<Item> searchAvailableByPattern(@Param("pattern") String pattern, @Param("terms") String terms,
+                                         Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("select i from Item i join fetch i.owner " +
+            "join fetch i.request r left join fetch r.requestor " +
+            "where r.id in :requestIds " +
+            "order by i.id")
+    List<Item> findAllByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
+
+    @Query("select i from Item i join fetch i.owner " +
+            "left join fetch i.request r left join fetch r.requestor " +
+            "where i.id in :itemIds")
+    List<Item> findAllWithOwnerByIdIn(@Param("itemIds") Collection<Long> itemIds);
+
+    /**
+     * Comments are never changed or removed, so their count and the summed versions of their authors
+     * change whenever the comments of the item do.
+     */
+    @Query("select i.version as version, i.owner.id as ownerId, " +
+            "(select count(c) from Comment c where c.item = i) as commentCount, " +
+            "(select coalesce(sum(a.version), 0) from Comment c join c.author a where c.item = i) " +
+            "as commentAuthorVersions " +
+            "from Item i where i.id = :itemId")
+    Optional<ItemVersionView> findVersionById(@Param("itemId") Long itemId);
+
+    @Query("select count(i) as itemCount, coalesce(sum(i.version), 0) as itemVersions " +
+            "from Item i where i.request.id = :requestId")
+    RequestItemsVersionView findVersionByRequestId(@Param("requestId") Long requestId);
 }
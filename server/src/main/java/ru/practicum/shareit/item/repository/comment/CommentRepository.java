@@ -1,12 +1,16 @@
 package ru.practicum.shareit.item.repository.comment;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.comment.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findCommentsByItemId(Long itemId);
+    @Query("select c from Comment c join fetch c.author where c.item.id in :itemIds order by c.id")
+    List<Comment> findByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
 }
@@ -4,6 +4,7 @@ import ru.practicum.shareit.item.dto.DetailedItemDto;
 import ru.practicum.shareit.item.dto.ItemCreationRequestDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemUpdateRequestDto;
+import ru.practicum.shareit.item.dto.ShortItemDto;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -11,14 +12,9 @@ import ru.practicum.shareit.request.exceptions.RequestNotFoundException;
 import ru.practicum.shareit.request.storage.RequestRepository;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
-    static void checkItemExistsById(ItemRepository itemRepository, Long itemId) {
-        if (!itemRepository.existsById(itemId)) {
-            throw ItemNotFoundException.getFromItemId(itemId);
-        }
-    }
-
     static boolean isOwner(Item item, Long userId) {
         Long ownerId = item.getOwner().getId();
         return ownerId.equals(userId);
@@ -42,7 +38,24 @@ public interface ItemService {
 
     DetailedItemDto getItemByItemId(Long itemId, Long userId);
 
+    /**
+     * Returns null for the owner: the owner's view holds the last and next bookings, which change with time.
+     */
+    String getItemEtag(Long itemId, Long userId);
+
     List<DetailedItemDto> getItemsByOwnerId(Long ownerId, Integer from, Integer size);
 
     List<ItemDto> searchItemsByNameOrDescription(String text, Integer from, Integer size);
+
+    void streamItemsByOwnerId(Long ownerId, Consumer<DetailedItemDto> action);
+
+    void streamItemsByNameOrDescription(String text, Consumer<ItemDto> action);
+
+    List<ItemDto> searchItemsByRelevance(String text, Integer from, Integer size);
+
+    List<ItemDto> searchItemsFuzzy(String text, Integer from, Integer size);
+
+    void streamItemsFuzzy(String text, Consumer<ItemDto> action);
+
+    List<ShortItemDto> suggestItemNames(String prefix, Integer size);
 }
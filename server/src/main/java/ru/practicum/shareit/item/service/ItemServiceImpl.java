@@ -3,80 +3,119 @@ package ru.practicum.shareit.item.service;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.mapper.BookingDtoMapper;
+import ru.practicum.shareit.booking.service.BookingCache;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryProjection;
 import ru.practicum.shareit.item.dto.DetailedItemDto;
 import ru.practicum.shareit.item.dto.ItemCreationRequestDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemUpdateRequestDto;
+import ru.practicum.shareit.item.dto.ShortItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemVersionView;
+import ru.practicum.shareit.item.service.search.ItemSearchCache;
+import ru.practicum.shareit.item.service.search.ItemSearchCache.SearchMode;
+import ru.practicum.shareit.item.service.search.ItemSearchIndex;
+import ru.practicum.shareit.item.service.search.ItemTextAnalyzer;
 import ru.practicum.shareit.request.storage.RequestRepository;
 import ru.practicum.shareit.user.mapper.CommentDtoMapper;
 import ru.practicum.shareit.user.mapper.ItemDtoMapper;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utills.ETags;
+import ru.practicum.shareit.utills.EntityResolver;
+import ru.practicum.shareit.utills.EntityStreams;
+import ru.practicum.shareit.utills.KnownIdFilter;
+import ru.practicum.shareit.utills.OffsetPageRequest;
 
-import java.util.Collections;
-import java.util.List;
+import javax.persistence.EntityManager;
+import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.item.service.ItemService.*;
-import static ru.practicum.shareit.user.service.UserService.checkUserExistsById;
 
 @Service
 @Slf4j
 @Transactional
 public class ItemServiceImpl implements ItemService {
+    private static final int ITEMS_FETCH_CHUNK = 1000;
+    private static final int DEFAULT_SEARCH_SIZE = 10;
+
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
     private final ItemDtoMapper itemDtoMapper;
-    private final BookingDtoMapper bookingDtoMapper;
     private final CommentDtoMapper commentDtoMapper;
     private final RequestRepository requestRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemSearchCache itemSearchCache;
+    private final EntityManager entityManager;
+    private final ItemBookingSummaryProjection itemBookingSummaryProjection;
+    private final EntityResolver entityResolver;
+    private final KnownIdFilter knownIdFilter;
+    private final BookingCache bookingCache;
 
     public ItemServiceImpl(ItemRepository itemRepository,
-                           UserRepository userRepository,
                            ItemDtoMapper itemDtoMapper,
-                           BookingDtoMapper bookingDtoMapper,
-                           CommentDtoMapper commentDtoMapper, RequestRepository requestRepository) {
+                           CommentDtoMapper commentDtoMapper, RequestRepository requestRepository,
+                           ItemSearchIndex itemSearchIndex, ItemSearchCache itemSearchCache,
+                           EntityManager entityManager,
+                           ItemBookingSummaryProjection itemBookingSummaryProjection,
+                           EntityResolver entityResolver,
+                           KnownIdFilter knownIdFilter,
+                           BookingCache bookingCache) {
         this.itemRepository = itemRepository;
-        this.userRepository = userRepository;
         this.itemDtoMapper = itemDtoMapper;
-        this.bookingDtoMapper = bookingDtoMapper;
         this.commentDtoMapper = commentDtoMapper;
         this.requestRepository = requestRepository;
+        this.itemSearchIndex = itemSearchIndex;
+        this.itemSearchCache = itemSearchCache;
+        this.entityManager = entityManager;
+        this.itemBookingSummaryProjection = itemBookingSummaryProjection;
+        this.entityResolver = entityResolver;
+        this.knownIdFilter = knownIdFilter;
+        this.bookingCache = bookingCache;
     }
 
 
     @Override
     public ItemDto addItem(ItemCreationRequestDto itemDto, Long ownerId) {
-        checkUserExistsById(userRepository, ownerId);
+        entityResolver.getUser(ownerId);
         if (itemDto.getRequestId() == null) {
-            Item item = itemDtoMapper.toItem(itemDto, ownerId);
-            Item addedItem = itemRepository.save(item);
-            log.debug("Item ID_{} added.", addedItem.getId());
-            return itemDtoMapper.toItemDto(addedItem);
+            return saveItem(itemDto, ownerId);
         } else return addItemOnRequest(itemDto, ownerId);
     }
 
     private ItemDto addItemOnRequest(ItemCreationRequestDto itemDto, Long ownerId) {
         checkHasRequest(requestRepository, itemDto.getRequestId());
-        checkUserExistsById(userRepository, ownerId);
+        return saveItem(itemDto, ownerId);
+    }
+
+    private ItemDto saveItem(ItemCreationRequestDto itemDto, Long ownerId) {
         Item item = itemDtoMapper.toItem(itemDto, ownerId);
         Item addedItem = itemRepository.save(item);
+        itemSearchIndex.index(addedItem);
+        itemSearchCache.evict(null, addedItem);
+        itemBookingSummaryProjection.create(addedItem.getId());
+        knownIdFilter.addItem(addedItem.getId());
         log.debug("Item ID_{} added.", addedItem.getId());
         return itemDtoMapper.toItemDto(addedItem);
-
     }
 
     @Override
     public ItemDto updateItem(ItemUpdateRequestDto itemDto, Long itemId, Long userId) {
-        checkItemExistsById(itemRepository, itemId);
-        checkUserExistsById(userRepository, userId);
+        Item previous = copySearchableFields(entityResolver.getItem(itemId));
+        entityResolver.getUser(userId);
         checkOwnerOfItemByItemIdAndUserId(itemRepository, itemId, userId);
         Item item = itemDtoMapper.toItem(itemDto, itemId, userId);
         Item updatedItem = itemRepository.save(item);
+        itemSearchIndex.index(updatedItem);
+        itemSearchCache.evict(previous, updatedItem);
+        if (!Objects.equals(previous.getName(), updatedItem.getName())) {
+            bookingCache.evictByItemId(itemId);
+        }
         log.debug("Item ID_{} updated.", itemId);
         return itemDtoMapper.toItemDto(updatedItem);
     }
@@ -84,22 +123,32 @@ public class ItemServiceImpl implements ItemService {
     @Override
     @Transactional(readOnly = true)
     public DetailedItemDto getItemByItemId(Long itemId, Long userId) {
-        checkItemExistsById(itemRepository, itemId);
-        Item item = itemRepository.findById(itemId).get();
+        Item item = entityResolver.getItem(itemId);
         log.debug("Item ID_{} returned.", item.getId());
         if (isOwner(item, userId)) {
-            return itemDtoMapper.toDetailedItemDtoForOwner(item, commentDtoMapper, bookingDtoMapper);
+            return itemDtoMapper.toDetailedItemDtoForOwner(item, commentDtoMapper);
         }
         return itemDtoMapper.toDetailedItemDto(item, commentDtoMapper);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public String getItemEtag(Long itemId, Long userId) {
+        ItemVersionView version = itemRepository.findVersionById(itemId)
+                .orElseThrow(() -> ItemNotFoundException.getFromItemId(itemId));
+        if (version.getOwnerId().equals(userId)) {
+            return null;
+        }
+        return ETags.of(itemId, version.getVersion(), version.getCommentCount(), version.getCommentAuthorVersions());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<DetailedItemDto> getItemsByOwnerId(Long ownerId, Integer from, Integer size) {
         if (!isRequestWithPagination(from, size)) {
             List<Item> items = itemRepository.findByOwner_Id(ownerId);
             log.debug("All items have been returned, {} in total.", items.size());
-            return itemDtoMapper.toDetailedItemDto(items, commentDtoMapper, bookingDtoMapper);
+            return itemDtoMapper.toDetailedItemDto(items, commentDtoMapper);
         }
         return getItemsByOwnerIdWithPagination(ownerId, from, size);
     }
@@ -107,7 +156,15 @@ public class ItemServiceImpl implements ItemService {
     private List<DetailedItemDto> getItemsByOwnerIdWithPagination(Long ownerId, Integer from, Integer size) {
         List<Item> items = itemRepository.findByOwner_Id(ownerId, PageRequest.of(from, size)).getContent();
         log.debug("All items have been returned, {} in total.", items.size());
-        return itemDtoMapper.toDetailedItemDto(items, commentDtoMapper, bookingDtoMapper);
+        return itemDtoMapper.toDetailedItemDto(items, commentDtoMapper);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamItemsByOwnerId(Long ownerId, Consumer<DetailedItemDto> action) {
+        EntityStreams.forEachChunk(itemRepository.streamByOwner_IdOrderById(ownerId), entityManager,
+                items -> itemDtoMapper.toDetailedItemDto(items, commentDtoMapper).forEach(action));
+        log.debug("All items of user ID_{} streamed.", ownerId);
     }
 
     @Override
@@ -116,12 +173,13 @@ public class ItemServiceImpl implements ItemService {
         if (StringUtils.isEmpty(text)) {
             return Collections.emptyList();
         }
+        return itemSearchCache.get(SearchMode.PLAIN, text, from, size,
+                () -> findItemsByNameOrDescription(text, from, size));
+    }
+
+    private List<ItemDto> findItemsByNameOrDescription(String text, Integer from, Integer size) {
         if (!isRequestWithPagination(from, size)) {
-            List<Item> foundItems = itemRepository.findByAvailableIsTrue()
-                    .stream()
-                    .filter(itemDto -> StringUtils.containsIgnoreCase(itemDto.getName(), text)
-                            || StringUtils.containsIgnoreCase(itemDto.getDescription(), text))
-                    .collect(Collectors.toList());
+            List<Item> foundItems = getItemsInOrder(itemSearchIndex.search(text));
             log.debug("Returned items containing '{}', {} in total.", text, foundItems.size());
 
             return itemDtoMapper.toItemDto(foundItems);
@@ -130,14 +188,125 @@ public class ItemServiceImpl implements ItemService {
     }
 
     private List<ItemDto> searchItemsByNameOrDescriptionWithPagination(String text, Integer from, Integer size) {
-        List<Item> foundItems = itemRepository.findByAvailableIsTrue()
-                .stream()
-                .filter(itemDto -> StringUtils.containsIgnoreCase(itemDto.getName(), text)
-                        || StringUtils.containsIgnoreCase(itemDto.getDescription(), text))
-                .skip(from)
-                .limit(size)
+        Slice<Item> foundItems = itemRepository.searchAvailableByPattern(toLikePattern(text),
+                ItemTextAnalyzer.toSearchTermsPattern(text),
+                OffsetPageRequest.of(from, size));
+        log.debug("Returned items containing '{}' from {}, {} in total.", text, from, foundItems.getNumberOfElements());
+        return itemDtoMapper.toItemDto(foundItems.getContent());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamItemsByNameOrDescription(String text, Consumer<ItemDto> action) {
+        if (StringUtils.isEmpty(text)) {
+            return;
+        }
+        streamItemsInOrder(itemSearchIndex.search(text), action);
+        log.debug("Streamed items containing '{}'.", text);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemDto> searchItemsByRelevance(String text, Integer from, Integer size) {
+        if (StringUtils.isEmpty(text)) {
+            return Collections.emptyList();
+        }
+        return itemSearchCache.get(SearchMode.RANKED, text, from, size,
+                () -> findItemsByRelevance(text, from, size));
+    }
+
+    private List<ItemDto> findItemsByRelevance(String text, Integer from, Integer size) {
+        int offset = (from == null) ? 0 : from;
+        int limit = (size == null) ? DEFAULT_SEARCH_SIZE : size;
+        int topK = (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+        List<Long> foundIds = itemSearchIndex.searchRanked(text, topK).stream()
+                .skip(offset)
+                .collect(Collectors.toList());
+        log.debug("Returned items ranked by relevance to '{}', {} in total.", text, foundIds.size());
+        return itemDtoMapper.toItemDto(getItemsInOrder(foundIds));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemDto> searchItemsFuzzy(String text, Integer from, Integer size) {
+        if (StringUtils.isEmpty(text)) {
+            return Collections.emptyList();
+        }
+        return itemSearchCache.get(SearchMode.FUZZY, text, from, size,
+                () -> findItemsFuzzy(text, from, size));
+    }
+
+    private List<ItemDto> findItemsFuzzy(String text, Integer from, Integer size) {
+        List<Long> foundIds = itemSearchIndex.searchFuzzy(text);
+        if (isRequestWithPagination(from, size)) {
+            foundIds = foundIds.stream()
+                    .skip(from)
+                    .limit(size)
+                    .collect(Collectors.toList());
+        }
+        log.debug("Returned items similar to '{}', {} in total.", text, foundIds.size());
+        return itemDtoMapper.toItemDto(getItemsInOrder(foundIds));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamItemsFuzzy(String text, Consumer<ItemDto> action) {
+        if (StringUtils.isEmpty(text)) {
+            return;
+        }
+        streamItemsInOrder(itemSearchIndex.searchFuzzy(text), action);
+        log.debug("Streamed items similar to '{}'.", text);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<ShortItemDto> suggestItemNames(String prefix, Integer size) {
+        if (StringUtils.isEmpty(prefix)) {
+            return Collections.emptyList();
+        }
+        int limit = (size == null) ? DEFAULT_SEARCH_SIZE : size;
+        return itemSearchIndex.suggest(prefix, limit).entrySet().stream()
+                .map(completion -> ShortItemDto.builder()
+                        .id(completion.getKey())
+                        .name(completion.getValue())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private Item copySearchableFields(Item item) {
+        return Item.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .build();
+    }
+
+    private String toLikePattern(String text) {
+        return text.toLowerCase(Locale.ROOT)
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+    }
+
+    private List<Item> getItemsInOrder(List<Long> itemIds) {
+        Map<Long, Item> items = new HashMap<>();
+        for (int i = 0; i < itemIds.size(); i += ITEMS_FETCH_CHUNK) {
+            List<Long> chunk = itemIds.subList(i, Math.min(i + ITEMS_FETCH_CHUNK, itemIds.size()));
+            itemRepository.findAllById(chunk).forEach(item -> items.put(item.getId(), item));
+        }
+        return itemIds.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
-        return itemDtoMapper.toItemDto(foundItems);
+    }
+
+    private void streamItemsInOrder(List<Long> itemIds, Consumer<ItemDto> action) {
+        for (int i = 0; i < itemIds.size(); i += ITEMS_FETCH_CHUNK) {
+            List<Long> chunk = itemIds.subList(i, Math.min(i + ITEMS_FETCH_CHUNK, itemIds.size()));
+            getItemsInOrder(chunk).forEach(item -> action.accept(itemDtoMapper.toItemDto(item)));
+            entityManager.clear();
+        }
     }
 
     private boolean isRequestWithPagination(Integer from, Integer size) {
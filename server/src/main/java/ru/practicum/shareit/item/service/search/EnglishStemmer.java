@@ -0,0 +1,174 @@
+package ru.practicum.shareit.item.service.search;
+
+/**
+ * Porter stemmer for English. Expects a lower case word of latin letters.
+ */
+final class EnglishStemmer {
+    private static final String[][] STEP_2 = {{"ational", "ate"}, {"tional", "tion"}, {"enci", "ence"},
+            {"anci", "ance"}, {"izer", "ize"}, {"bli", "ble"}, {"alli", "al"}, {"entli", "ent"}, {"eli", "e"},
+            {"ousli", "ous"}, {"ization", "ize"}, {"ation", "ate"}, {"ator", "ate"}, {"alism", "al"},
+            {"iveness", "ive"}, {"fulness", "ful"}, {"ousness", "ous"}, {"aliti", "al"}, {"iviti", "ive"},
+            {"biliti", "ble"}, {"logi", "log"}};
+    private static final String[][] STEP_3 = {{"icate", "ic"}, {"ative", ""}, {"alize", "al"}, {"iciti", "ic"},
+            {"ical", "ic"}, {"ful", ""}, {"ness", ""}};
+    private static final String[] STEP_4 = {"al", "ance", "ence", "er", "ic", "able", "ible", "ant", "ement",
+            "ment", "ent", "ion", "ou", "ism", "ate", "iti", "ous", "ive", "ize"};
+
+    private final StringBuilder word;
+
+    private EnglishStemmer(String word) {
+        this.word = new StringBuilder(word);
+    }
+
+    static String stem(String word) {
+        if (word.length() <= 2) {
+            return word;
+        }
+        EnglishStemmer stemmer = new EnglishStemmer(word);
+        stemmer.step1();
+        stemmer.replaceSuffix(STEP_2, 0);
+        stemmer.replaceSuffix(STEP_3, 0);
+        stemmer.step4();
+        stemmer.step5();
+        return stemmer.word.toString();
+    }
+
+    private void step1() {
+        if (endsWith("sses") || endsWith("ies")) {
+            cut(2);
+        } else if (endsWith("s") && !endsWith("ss")) {
+            cut(1);
+        }
+
+        if (endsWith("eed")) {
+            if (measure(word.length() - 3) > 0) {
+                cut(1);
+            }
+        } else if ((endsWith("ed") && hasVowel(word.length() - 2))
+                || (endsWith("ing") && hasVowel(word.length() - 3))) {
+            cut(endsWith("ed") ? 2 : 3);
+            if (endsWith("at") || endsWith("bl") || endsWith("iz")) {
+                word.append('e');
+            } else if (endsWithDoubleConsonant(word.length()) && !endsWith("l") && !endsWith("s")
+                    && !endsWith("z")) {
+                cut(1);
+            } else if (measure(word.length()) == 1 && endsWithCvc(word.length())) {
+                word.append('e');
+            }
+        }
+
+        if (endsWith("y") && hasVowel(word.length() - 1)) {
+            word.setCharAt(word.length() - 1, 'i');
+        }
+    }
+
+    private void step4() {
+        for (String suffix : STEP_4) {
+            if (!endsWith(suffix)) {
+                continue;
+            }
+            int stemEnd = word.length() - suffix.length();
+            if (suffix.equals("ion") && (stemEnd == 0 || "st".indexOf(word.charAt(stemEnd - 1)) < 0)) {
+                continue;
+            }
+            if (measure(stemEnd) > 1) {
+                cut(suffix.length());
+            }
+            return;
+        }
+    }
+
+    private void step5() {
+        if (endsWith("e")) {
+            int stemEnd = word.length() - 1;
+            int measure = measure(stemEnd);
+            if (measure > 1 || (measure == 1 && !endsWithCvc(stemEnd))) {
+                cut(1);
+            }
+        }
+        if (endsWith("ll") && measure(word.length()) > 1) {
+            cut(1);
+        }
+    }
+
+    private void replaceSuffix(String[][] rules, int minMeasure) {
+        for (String[] rule : rules) {
+            if (endsWith(rule[0])) {
+                int stemEnd = word.length() - rule[0].length();
+                if (measure(stemEnd) > minMeasure) {
+                    word.replace(stemEnd, word.length(), rule[1]);
+                }
+                return;
+            }
+        }
+    }
+
+    private boolean endsWith(String suffix) {
+        int start = word.length() - suffix.length();
+        return start >= 0 && word.indexOf(suffix, start) == start;
+    }
+
+    private void cut(int length) {
+        word.setLength(word.length() - length);
+    }
+
+    private boolean isConsonant(int i) {
+        switch (word.charAt(i)) {
+            case 'a':
+            case 'e':
+            case 'i':
+            case 'o':
+            case 'u':
+                return false;
+            case 'y':
+                return i == 0 || !isConsonant(i - 1);
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Counts the vowel-consonant sequences in the first {@code end} letters.
+     */
+    private int measure(int end) {
+        int measure = 0;
+        int i = 0;
+        while (i < end && isConsonant(i)) {
+            i++;
+        }
+        while (i < end) {
+            while (i < end && !isConsonant(i)) {
+                i++;
+            }
+            if (i == end) {
+                break;
+            }
+            while (i < end && isConsonant(i)) {
+                i++;
+            }
+            measure++;
+        }
+        return measure;
+    }
+
+    private boolean hasVowel(int end) {
+        for (int i = 0; i < end; i++) {
+            if (!isConsonant(i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean endsWithDoubleConsonant(int end) {
+        return end >= 2 && word.charAt(end - 1) == word.charAt(end - 2) && isConsonant(end - 1);
+    }
+
+    private boolean endsWithCvc(int end) {
+        if (end < 3 || !isConsonant(end - 1) || isConsonant(end - 2) || !isConsonant(end - 3)) {
+            return false;
+        }
+        char last = word.charAt(end - 1);
+        return last != 'w' && last != 'x' && last != 'y';
+    }
+}
@@ -0,0 +1,167 @@
+package ru.practicum.shareit.item.service.search;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.item.service.search.ItemTextAnalyzer.normalize;
+import static ru.practicum.shareit.item.service.search.ItemTextAnalyzer.tokenize;
+import static ru.practicum.shareit.utills.TransactionHooks.runAfterCommit;
+
+/**
+ * Bounded LRU cache of item search results. An item change evicts only the entries
+ * that list the item or whose query matches its old or new text.
+ */
+@Component
+@Slf4j
+public class ItemSearchCache {
+    private static final String METRIC_PREFIX = "item.search.cache.";
+
+    private final int maxSize;
+    private final Map<Key, CachedResult> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private long version;
+
+    public ItemSearchCache(@Value("${shareit.item-search.cache.max-size:1000}") int maxSize,
+                           MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedResult> eldest) {
+                if (size() > ItemSearchCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        registerMetrics(meterRegistry);
+    }
+
+    public List<ItemDto> get(SearchMode mode, String text, Integer from, Integer size, Supplier<List<ItemDto>> search) {
+        Key key = new Key(mode, text.toLowerCase(Locale.ROOT), from, size);
+        long versionBefore;
+        synchronized (this) {
+            CachedResult cached = entries.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached.getItems();
+            }
+            versionBefore = version;
+        }
+        misses.incrementAndGet();
+        List<ItemDto> items = List.copyOf(search.get());
+        synchronized (this) {
+            if (version == versionBefore) {
+                entries.put(key, new CachedResult(items));
+            }
+        }
+        return items;
+    }
+
+    public void evict(Item previous, Item saved) {
+        if (previous != null
+                && Objects.equals(previous.getName(), saved.getName())
+                && Objects.equals(previous.getDescription(), saved.getDescription())
+                && Objects.equals(previous.getAvailable(), saved.getAvailable())) {
+            return;
+        }
+        Long itemId = saved.getId();
+        ItemSearchIndex.Document previousDocument = toDocument(previous);
+        ItemSearchIndex.Document document = toDocument(saved);
+        runAfterCommit(() -> evict(itemId, previousDocument, document));
+    }
+
+    /**
+     * Entries whose query matched the old text are dropped too: the item leaves their results, which
+     * shifts every later page of the query, not only the one that listed the item.
+     */
+    private synchronized void evict(Long itemId, ItemSearchIndex.Document previousDocument,
+                                    ItemSearchIndex.Document document) {
+        version++;
+        int sizeBefore = entries.size();
+        entries.entrySet().removeIf(entry -> entry.getValue().getItemIds().contains(itemId)
+                || (previousDocument != null && entry.getKey().matches(previousDocument))
+                || (document != null && entry.getKey().matches(document)));
+        invalidations.addAndGet(sizeBefore - entries.size());
+        log.debug("Item ID_{} changed, {} cached searches invalidated.", itemId, sizeBefore - entries.size());
+    }
+
+    private static ItemSearchIndex.Document toDocument(Item item) {
+        return (item != null && item.getAvailable() == Boolean.TRUE) ?
+                new ItemSearchIndex.Document(item.getId(), item.getName(), item.getDescription()) : null;
+    }
+
+    private void registerMetrics(MeterRegistry meterRegistry) {
+        FunctionCounter.builder(METRIC_PREFIX + "hits", hits, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + "misses", misses, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + "evictions", evictions, AtomicLong::get)
+                .description("Entries dropped to keep the cache within its maximum size")
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + "invalidations", invalidations, AtomicLong::get)
+                .description("Entries dropped because a matching item changed")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "size", this, ItemSearchCache::size).register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "hit.ratio", this, ItemSearchCache::hitRatio).register(meterRegistry);
+    }
+
+    private synchronized double size() {
+        return entries.size();
+    }
+
+    private double hitRatio() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return (total == 0) ? 0 : (double) hitCount / total;
+    }
+
+    public enum SearchMode {
+        PLAIN,
+        RANKED,
+        FUZZY
+    }
+
+    @Data
+    private static class Key {
+        private final SearchMode mode;
+        private final String text;
+        private final Integer from;
+        private final Integer size;
+
+        boolean matches(ItemSearchIndex.Document document) {
+            String query = normalize(text);
+            if (mode == SearchMode.FUZZY) {
+                return document.matchesFuzzy(tokenize(query));
+            }
+            return document.matches(query, ItemTextAnalyzer.stems(query));
+        }
+    }
+
+    @Getter
+    private static class CachedResult {
+        private final List<ItemDto> items;
+        private final Set<Long> itemIds;
+
+        private CachedResult(List<ItemDto> items) {
+            this.items = items;
+            this.itemIds = items.stream()
+                    .map(ItemDto::getId)
+                    .collect(Collectors.toSet());
+        }
+    }
+}
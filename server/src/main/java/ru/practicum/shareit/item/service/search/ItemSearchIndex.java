@@ -0,0 +1,441 @@
+package ru.practicum.shareit.item.service.search;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemTextView;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.item.service.search.ItemTextAnalyzer.normalize;
+import static ru.practicum.shareit.item.service.search.ItemTextAnalyzer.tokenize;
+import static ru.practicum.shareit.utills.TransactionHooks.runAfterCommit;
+
+/**
+ * In-memory trigram index over the name and description of available items.
+ * Search looks up the posting lists of the query trigrams and verifies the
+ * remaining candidates, so the items table is never scanned. Item text is
+ * analyzed once, when the item is indexed, and a query also matches the items
+ * containing all of its word stems.
+ */
+@Component
+@Slf4j
+public class ItemSearchIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final double NAME_HIT_WEIGHT = 3.0;
+    private static final double DESCRIPTION_HIT_WEIGHT = 1.0;
+    private static final double RECENCY_WEIGHT = 0.5;
+    private static final String TERM_BOUNDARY = "$";
+
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<String, Set<Long>> stemPostings = new HashMap<>();
+    private final NavigableMap<String, Set<Long>> names = new TreeMap<>();
+    private final Map<String, Set<Long>> terms = new HashMap<>();
+    private final Map<String, Set<String>> termGrams = new HashMap<>();
+    private final Map<Integer, Set<String>> termsByLength = new HashMap<>();
+    private long newestId = 1L;
+
+    public ItemSearchIndex(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        List<ItemTextView> items = itemRepository.findAllTextsByAvailableIsTrue();
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            stemPostings.clear();
+            names.clear();
+            terms.clear();
+            termGrams.clear();
+            termsByLength.clear();
+            newestId = 1L;
+            items.forEach(item -> add(new Document(item.getId(), item.getName(), item.getDescription())));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Item search index built, {} items in total.", items.size());
+    }
+
+    public void index(Item item) {
+        Long itemId = item.getId();
+        Document document = (item.getAvailable() == Boolean.TRUE) ?
+                new Document(itemId, item.getName(), item.getDescription()) : null;
+        runAfterCommit(() -> replace(itemId, document));
+    }
+
+    public List<Long> search(String text) {
+        String query = normalize(text);
+        Set<String> queryStems = ItemTextAnalyzer.stems(query);
+        lock.readLock().lock();
+        try {
+            Set<Long> found = new TreeSet<>(findStemMatches(queryStems));
+            for (Long candidate : findCandidates(query)) {
+                if (documents.get(candidate).contains(query)) {
+                    found.add(candidate);
+                }
+            }
+            return new ArrayList<>(found);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Long> searchRanked(String text, int limit) {
+        if (limit < 1) {
+            return Collections.emptyList();
+        }
+        String query = normalize(text);
+        Set<String> queryStems = ItemTextAnalyzer.stems(query);
+        lock.readLock().lock();
+        try {
+            Set<Long> stemMatches = findStemMatches(queryStems);
+            Set<Long> candidates = new HashSet<>(findCandidates(query));
+            candidates.addAll(stemMatches);
+
+            PriorityQueue<ScoredId> top = new PriorityQueue<>(Math.min(limit, 1024));
+            for (Long candidate : candidates) {
+                Document document = documents.get(candidate);
+                double score = document.score(query);
+                if (stemMatches.contains(candidate)) {
+                    score += document.score(queryStems);
+                }
+                if (score == 0) {
+                    continue;
+                }
+                ScoredId scored = new ScoredId(candidate, score + RECENCY_WEIGHT * candidate / newestId);
+                if (top.size() < limit) {
+                    top.add(scored);
+                } else if (top.peek().compareTo(scored) < 0) {
+                    top.poll();
+                    top.add(scored);
+                }
+            }
+            List<ScoredId> ranked = new ArrayList<>(top);
+            ranked.sort(Comparator.reverseOrder());
+            return ranked.stream()
+                    .map(ScoredId::getId)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Long> searchFuzzy(String text) {
+        List<String> tokens = tokenize(normalize(text));
+        if (tokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            Set<Long> found = null;
+            for (String token : tokens) {
+                Set<Long> matches = new HashSet<>();
+                findSimilarTerms(token).forEach(term -> matches.addAll(terms.get(term)));
+                if (found == null) {
+                    found = matches;
+                } else {
+                    found.retainAll(matches);
+                }
+                if (found.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+            return found.stream()
+                    .sorted()
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<Long, String> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        Map<Long, String> completions = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<String, Set<Long>> entry : names.tailMap(key, true).entrySet()) {
+                if (completions.size() >= limit || !entry.getKey().startsWith(key)) {
+                    break;
+                }
+                for (Long itemId : entry.getValue()) {
+                    if (completions.size() >= limit) {
+                        break;
+                    }
+                    completions.put(itemId, documents.get(itemId).getTitle());
+                }
+            }
+            return completions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<String> findSimilarTerms(String token) {
+        int maxEdits = maxEdits(token);
+        LevenshteinAutomaton automaton = new LevenshteinAutomaton(token, maxEdits);
+        Set<String> tokenGrams = termGrams(token);
+        int minSharedGrams = tokenGrams.size() - GRAM_LENGTH * maxEdits;
+
+        Collection<String> candidates;
+        if (minSharedGrams > 0) {
+            Map<String, Integer> sharedGrams = new HashMap<>();
+            for (String gram : tokenGrams) {
+                termGrams.getOrDefault(gram, Collections.emptySet())
+                        .forEach(term -> sharedGrams.merge(term, 1, Integer::sum));
+            }
+            candidates = sharedGrams.entrySet().stream()
+                    .filter(entry -> entry.getValue() >= minSharedGrams)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+        } else {
+            candidates = new ArrayList<>();
+            for (int length = token.length() - maxEdits; length <= token.length() + maxEdits; length++) {
+                candidates.addAll(termsByLength.getOrDefault(length, Collections.emptySet()));
+            }
+        }
+        return candidates.stream()
+                .filter(automaton::accepts)
+                .collect(Collectors.toList());
+    }
+
+    static int maxEdits(String token) {
+        if (token.length() <= 2) {
+            return 0;
+        }
+        return (token.length() <= 5) ? 1 : 2;
+    }
+
+    private Collection<Long> findCandidates(String query) {
+        if (query.length() < GRAM_LENGTH) {
+            return documents.keySet();
+        }
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            Set<Long> list = postings.get(gram);
+            if (list == null) {
+                return Collections.emptySet();
+            }
+            lists.add(list);
+        }
+        return intersect(lists);
+    }
+
+    private Set<Long> findStemMatches(Set<String> queryStems) {
+        if (queryStems.isEmpty()) {
+            return Collections.emptySet();
+        }
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String stem : queryStems) {
+            Set<Long> list = stemPostings.get(stem);
+            if (list == null) {
+                return Collections.emptySet();
+            }
+            lists.add(list);
+        }
+        return intersect(lists);
+    }
+
+    private static Set<Long> intersect(List<Set<Long>> lists) {
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private void replace(Long itemId, Document document) {
+        lock.writeLock().lock();
+        try {
+            remove(itemId);
+            if (document != null) {
+                add(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(Document document) {
+        documents.put(document.getId(), document);
+        newestId = Math.max(newestId, document.getId());
+        names.computeIfAbsent(document.getName(), key -> new TreeSet<>()).add(document.getId());
+        for (String term : document.terms()) {
+            Set<Long> list = terms.computeIfAbsent(term, key -> new HashSet<>());
+            if (list.isEmpty()) {
+                termGrams(term).forEach(gram -> termGrams.computeIfAbsent(gram, key -> new HashSet<>()).add(term));
+                termsByLength.computeIfAbsent(term.length(), key -> new HashSet<>()).add(term);
+            }
+            list.add(document.getId());
+        }
+        document.grams().forEach(gram -> postings.computeIfAbsent(gram, key -> new HashSet<>()).add(document.getId()));
+        document.stems().forEach(stem -> stemPostings.computeIfAbsent(stem, key -> new HashSet<>()).add(document.getId()));
+    }
+
+    private void remove(Long itemId) {
+        Document document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+        Set<Long> namesakes = names.get(document.getName());
+        namesakes.remove(itemId);
+        if (namesakes.isEmpty()) {
+            names.remove(document.getName());
+        }
+        for (String term : document.terms()) {
+            Set<Long> list = terms.get(term);
+            list.remove(itemId);
+            if (list.isEmpty()) {
+                terms.remove(term);
+                removeTermFromDictionary(term);
+            }
+        }
+        for (String gram : document.grams()) {
+            Set<Long> list = postings.get(gram);
+            list.remove(itemId);
+            if (list.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+        for (String stem : document.stems()) {
+            Set<Long> list = stemPostings.get(stem);
+            list.remove(itemId);
+            if (list.isEmpty()) {
+                stemPostings.remove(stem);
+            }
+        }
+    }
+
+    private void removeTermFromDictionary(String term) {
+        for (String gram : termGrams(term)) {
+            Set<String> list = termGrams.get(gram);
+            list.remove(term);
+            if (list.isEmpty()) {
+                termGrams.remove(gram);
+            }
+        }
+        Set<String> sameLength = termsByLength.get(term.length());
+        sameLength.remove(term);
+        if (sameLength.isEmpty()) {
+            termsByLength.remove(term.length());
+        }
+    }
+
+    static Set<String> termGrams(String term) {
+        return grams(TERM_BOUNDARY + term + TERM_BOUNDARY);
+    }
+
+    static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    @Getter
+    static final class Document {
+        private final Long id;
+        private final String title;
+        private final String name;
+        private final String description;
+        private final Set<String> nameStems;
+        private final Set<String> descriptionStems;
+
+        Document(Long id, String name, String description) {
+            this.id = id;
+            this.title = name;
+            this.name = normalize(name);
+            this.description = normalize(description);
+            this.nameStems = ItemTextAnalyzer.stems(this.name);
+            this.descriptionStems = ItemTextAnalyzer.stems(this.description);
+        }
+
+        boolean contains(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        boolean matches(String query, Set<String> queryStems) {
+            return contains(query) || (!queryStems.isEmpty() && stems().containsAll(queryStems));
+        }
+
+        boolean matchesFuzzy(List<String> tokens) {
+            Set<String> terms = terms();
+            for (String token : tokens) {
+                LevenshteinAutomaton automaton = new LevenshteinAutomaton(token, maxEdits(token));
+                if (terms.stream().noneMatch(automaton::accepts)) {
+                    return false;
+                }
+            }
+            return !tokens.isEmpty();
+        }
+
+        double score(String query) {
+            return NAME_HIT_WEIGHT * occurrences(name, query) + DESCRIPTION_HIT_WEIGHT * occurrences(description, query);
+        }
+
+        double score(Set<String> queryStems) {
+            double score = 0;
+            for (String stem : queryStems) {
+                score += (nameStems.contains(stem) ? NAME_HIT_WEIGHT : 0)
+                        + (descriptionStems.contains(stem) ? DESCRIPTION_HIT_WEIGHT : 0);
+            }
+            return score;
+        }
+
+        Set<String> grams() {
+            Set<String> grams = ItemSearchIndex.grams(name);
+            grams.addAll(ItemSearchIndex.grams(description));
+            return grams;
+        }
+
+        Set<String> terms() {
+            Set<String> terms = new HashSet<>(tokenize(name));
+            terms.addAll(tokenize(description));
+            return terms;
+        }
+
+        Set<String> stems() {
+            Set<String> stems = new HashSet<>(nameStems);
+            stems.addAll(descriptionStems);
+            return stems;
+        }
+    }
+
+    private static int occurrences(String text, String query) {
+        int count = 0;
+        for (int i = text.indexOf(query); i >= 0; i = text.indexOf(query, i + query.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    @Getter
+    private static final class ScoredId implements Comparable<ScoredId> {
+        private final Long id;
+        private final double score;
+
+        private ScoredId(Long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(ScoredId other) {
+            int byScore = Double.compare(score, other.score);
+            return (byScore != 0) ? byScore : id.compareTo(other.id);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.item.service.search;
+
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Brings item text and search queries to the same form: lower case with ё folded into е,
+ * split into words, with Russian and English words reduced to their stems.
+ */
+public final class ItemTextAnalyzer {
+    private static final String TERM_DELIMITER = "|";
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern RUSSIAN_WORD = Pattern.compile("[а-я]+");
+    private static final Pattern ENGLISH_WORD = Pattern.compile("[a-z]+");
+
+    private ItemTextAnalyzer() {
+    }
+
+    /**
+     * Stores the distinct stems of the texts sorted and each wrapped in delimiters, as in {@code |a||b|},
+     * so that {@link #toSearchTermsPattern} can match any set of stems with a single LIKE.
+     */
+    public static String toSearchTerms(String... texts) {
+        SortedSet<String> stems = new TreeSet<>();
+        for (String text : texts) {
+            if (text != null) {
+                stems.addAll(stems(normalize(text)));
+            }
+        }
+        if (stems.isEmpty()) {
+            return null;
+        }
+        return stems.stream()
+                .map(stem -> TERM_DELIMITER + stem + TERM_DELIMITER)
+                .collect(Collectors.joining());
+    }
+
+    public static String toSearchTermsPattern(String query) {
+        SortedSet<String> stems = new TreeSet<>(stems(normalize(query)));
+        if (stems.isEmpty()) {
+            return "";
+        }
+        return stems.stream()
+                .map(stem -> "%" + TERM_DELIMITER + stem + TERM_DELIMITER)
+                .collect(Collectors.joining()) + "%";
+    }
+
+    static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+    }
+
+    static List<String> tokenize(String normalized) {
+        return Arrays.stream(WORD_SEPARATOR.split(normalized))
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    static Set<String> stems(String normalized) {
+        return tokenize(normalized).stream()
+                .map(ItemTextAnalyzer::stem)
+                .collect(Collectors.toSet());
+    }
+
+    static String stem(String token) {
+        if (RUSSIAN_WORD.matcher(token).matches()) {
+            return RussianStemmer.stem(token);
+        }
+        if (ENGLISH_WORD.matcher(token).matches()) {
+            return EnglishStemmer.stem(token);
+        }
+        return token;
+    }
+}
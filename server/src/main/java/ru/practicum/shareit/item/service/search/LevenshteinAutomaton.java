@@ -0,0 +1,59 @@
+package ru.practicum.shareit.item.service.search;
+
+/**
+ * Accepts the terms within {@code maxEdits} insertions, deletions or substitutions of a word.
+ * A state holds the edit distance to every prefix of the word, capped at {@code maxEdits + 1},
+ * so a term is rejected as soon as no prefix can be reached within the bound.
+ */
+final class LevenshteinAutomaton {
+    private final String word;
+    private final int maxEdits;
+
+    LevenshteinAutomaton(String word, int maxEdits) {
+        this.word = word;
+        this.maxEdits = maxEdits;
+    }
+
+    boolean accepts(String term) {
+        if (Math.abs(term.length() - word.length()) > maxEdits) {
+            return false;
+        }
+        int[] state = start();
+        for (int i = 0; i < term.length(); i++) {
+            state = step(state, term.charAt(i));
+            if (!canMatch(state)) {
+                return false;
+            }
+        }
+        return state[word.length()] <= maxEdits;
+    }
+
+    private int[] start() {
+        int[] state = new int[word.length() + 1];
+        for (int i = 0; i < state.length; i++) {
+            state[i] = Math.min(i, maxEdits + 1);
+        }
+        return state;
+    }
+
+    private int[] step(int[] state, char symbol) {
+        int[] next = new int[state.length];
+        next[0] = Math.min(state[0] + 1, maxEdits + 1);
+        for (int i = 1; i < state.length; i++) {
+            int substitution = state[i - 1] + ((word.charAt(i - 1) == symbol) ? 0 : 1);
+            int insertion = state[i] + 1;
+            int deletion = next[i - 1] + 1;
+            next[i] = Math.min(Math.min(substitution, insertion), Math.min(deletion, maxEdits + 1));
+        }
+        return next;
+    }
+
+    private boolean canMatch(int[] state) {
+        for (int distance : state) {
+            if (distance <= maxEdits) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
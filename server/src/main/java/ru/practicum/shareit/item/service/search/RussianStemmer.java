@@ -0,0 +1,124 @@
+package ru.practicum.shareit.item.service.search;
+
+/**
+ * Snowball stemmer for Russian. Expects a lower case word with ё already folded into е.
+ */
+final class RussianStemmer {
+    private static final String VOWELS = "аеиоуыэюя";
+
+    private static final String[] PERFECTIVE_GERUND_AFTER_A = {"в", "вши", "вшись"};
+    private static final String[] PERFECTIVE_GERUND = {"ив", "ивши", "ившись", "ыв", "ывши", "ывшись"};
+    private static final String[] ADJECTIVE = {"ее", "ие", "ые", "ое", "ими", "ыми", "ей", "ий", "ый", "ой", "ем",
+            "им", "ым", "ом", "его", "ого", "ему", "ому", "их", "ых", "ую", "юю", "ая", "яя", "ою", "ею"};
+    private static final String[] PARTICIPLE_AFTER_A = {"ем", "нн", "вш", "ющ", "щ"};
+    private static final String[] PARTICIPLE = {"ивш", "ывш", "ующ"};
+    private static final String[] REFLEXIVE = {"ся", "сь"};
+    private static final String[] VERB_AFTER_A = {"ла", "на", "ете", "йте", "ли", "й", "л", "ем", "н", "ло", "но",
+            "ет", "ют", "ны", "ть", "ешь", "нно"};
+    private static final String[] VERB = {"ила", "ыла", "ена", "ейте", "уйте", "ите", "или", "ыли", "ей", "уй", "ил",
+            "ыл", "им", "ым", "ен", "ило", "ыло", "ено", "ят", "ует", "уют", "ит", "ыт", "ены", "ить", "ыть", "ишь",
+            "ую", "ю"};
+    private static final String[] NOUN = {"а", "ев", "ов", "ие", "ье", "е", "иями", "ями", "ами", "еи", "ии", "и",
+            "ией", "ей", "ой", "ий", "й", "иям", "ям", "ием", "ем", "ам", "ом", "о", "у", "ах", "иях", "ях", "ы", "ь",
+            "ию", "ью", "ю", "ия", "ья", "я"};
+    private static final String[] DERIVATIONAL = {"ост", "ость"};
+    private static final String[] SUPERLATIVE = {"ейш", "ейше"};
+    private static final String[] NONE = {};
+
+    private final StringBuilder word;
+    private final int rv;
+    private final int r2;
+
+    private RussianStemmer(String word) {
+        this.word = new StringBuilder(word);
+        this.rv = skipPast(word, 0, true);
+        int r1 = skipPast(word, rv, false);
+        this.r2 = skipPast(word, skipPast(word, r1, true), false);
+    }
+
+    static String stem(String word) {
+        RussianStemmer stemmer = new RussianStemmer(word);
+        stemmer.run();
+        return stemmer.word.toString();
+    }
+
+    private void run() {
+        if (!removeEnding(PERFECTIVE_GERUND_AFTER_A, PERFECTIVE_GERUND)) {
+            removeEnding(NONE, REFLEXIVE);
+            if (removeEnding(NONE, ADJECTIVE)) {
+                removeEnding(PARTICIPLE_AFTER_A, PARTICIPLE);
+            } else if (!removeEnding(VERB_AFTER_A, VERB)) {
+                removeEnding(NONE, NOUN);
+            }
+        }
+        if (endsInRegion("и", rv)) {
+            cut(1);
+        }
+        String derivational = longestEnding(DERIVATIONAL, r2);
+        if (derivational != null) {
+            cut(derivational.length());
+        }
+        String superlative = longestEnding(SUPERLATIVE, rv);
+        if (superlative != null) {
+            cut(superlative.length());
+        }
+        if (endsInRegion("нн", rv)) {
+            cut(1);
+        } else if (superlative == null && endsInRegion("ь", rv)) {
+            cut(1);
+        }
+    }
+
+    /**
+     * Removes the longest of the given endings found in RV. The endings of the first group only count
+     * when they follow а or я, which stays in the word; otherwise the second group is tried.
+     */
+    private boolean removeEnding(String[] afterA, String[] plain) {
+        String first = longestEnding(afterA, rv);
+        String second = longestEnding(plain, rv);
+        if (first != null && (second == null || first.length() > second.length())) {
+            int before = word.length() - first.length() - 1;
+            if (before >= rv && (word.charAt(before) == 'а' || word.charAt(before) == 'я')) {
+                cut(first.length());
+                return true;
+            }
+        }
+        if (second == null) {
+            return false;
+        }
+        cut(second.length());
+        return true;
+    }
+
+    private String longestEnding(String[] endings, int region) {
+        String longest = null;
+        for (String ending : endings) {
+            if ((longest == null || ending.length() > longest.length()) && endsInRegion(ending, region)) {
+                longest = ending;
+            }
+        }
+        return longest;
+    }
+
+    private boolean endsInRegion(String ending, int region) {
+        int start = word.length() - ending.length();
+        return start >= region && word.indexOf(ending, start) == start;
+    }
+
+    private void cut(int length) {
+        word.setLength(word.length() - length);
+    }
+
+    private static int skipPast(String word, int from, boolean vowel) {
+        for (int i = from; i < word.length(); i++) {
+            if (isVowel(word.charAt(i)) == vowel) {
+                return i + 1;
+            }
+        }
+        return word.length();
+    }
+
+    private static boolean isVowel(char symbol) {
+        return VOWELS.indexOf(symbol) >= 0;
+    }
+}
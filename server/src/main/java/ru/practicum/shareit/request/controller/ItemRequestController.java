@@ -2,12 +2,16 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Slice;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.service.RequestCursor;
 import ru.practicum.shareit.request.service.RequestService;
 import ru.practicum.shareit.utills.UserHttpHeaders;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.util.List;
 
@@ -36,15 +40,29 @@ public class ItemRequestController {
     @GetMapping("/all")
     public List<ItemRequestDto> getAllRequests(@RequestHeader(UserHttpHeaders.USER_ID) Long userId,
                                                @RequestParam(required = false) Integer from,
-                                               @RequestParam(required = false) Integer size) {
+                                               @RequestParam(required = false) Integer size,
+                                               @RequestParam(required = false) String cursor,
+                                               HttpServletResponse response) {
         log.info("Received a GET request for the endpoint /requests/all with userId_{}", userId);
-        return service.getAllRequests(userId, from, size);
+        if (cursor == null) {
+            return service.getAllRequests(userId, from, size);
+        }
+        Slice<ItemRequestDto> requests = service.getRequestFeed(userId, cursor, size);
+        if (requests.hasNext()) {
+            ItemRequestDto last = requests.getContent().get(requests.getNumberOfElements() - 1);
+            response.setHeader(UserHttpHeaders.NEXT_CURSOR, RequestCursor.of(last).encode());
+        }
+        return requests.getContent();
     }
 
     @GetMapping("/{requestId}")
     public ItemRequestDto getRequestById(@RequestHeader(UserHttpHeaders.USER_ID) Long userId,
-                                         @PathVariable Long requestId) {
+                                         @PathVariable Long requestId,
+                                         WebRequest webRequest) {
         log.info("Received a GET request for the endpoint /requests/{requestId} with userId_{}", userId);
+        if (webRequest.checkNotModified(service.getRequestEtag(requestId, userId))) {
+            return null;
+        }
         return service.getRequestById(requestId, userId);
     }
 }
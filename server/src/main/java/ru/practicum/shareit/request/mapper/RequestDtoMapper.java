@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request.mapper;
 
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.RequestDto;
@@ -8,7 +9,10 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.mapper.ItemDtoMapper;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static java.time.LocalDateTime.now;
 
@@ -31,22 +35,36 @@ public class RequestDtoMapper {
     }
 
     public ItemRequestDto toRequestDto(ItemRequest request) {
-        return ItemRequestDto.builder()
-                .id(request.getId())
-                .description(request.getDescription())
-                .created(request.getCreationTime())
-                .items(itemDtoMapper.toItemDto(itemRepository.findAllByRequestId(request.getId())))
-                .build();
+        return toListOfDto(List.of(request)).get(0);
     }
 
+    /**
+     * Loads the items of all requests with one query.
+     */
     public List<ItemRequestDto> toListOfDto(List<ItemRequest> request) {
+        if (request.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> requestIds = request.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<Item>> items = itemRepository.findAllByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId()));
 
         List<ItemRequestDto> itemRequestDto = new ArrayList<>();
         for (ItemRequest requests : request) {
-            itemRequestDto.add(toRequestDto(requests));
-
+            itemRequestDto.add(toRequestDto(requests, items.getOrDefault(requests.getId(), Collections.emptyList())));
         }
 
         return itemRequestDto;
     }
+
+    private ItemRequestDto toRequestDto(ItemRequest request, List<Item> items) {
+        return ItemRequestDto.builder()
+                .id(request.getId())
+                .description(request.getDescription())
+                .created(request.getCreationTime())
+                .items(itemDtoMapper.toItemDto(items))
+                .build();
+    }
 }
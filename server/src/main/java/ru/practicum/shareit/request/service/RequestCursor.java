@@ -0,0 +1,44 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.Data;
+import ru.practicum.shareit.booking.exception.IncorrectCursorException;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last request of a feed page in the (creation time, id) descending order.
+ * Clients get it as an opaque string and pass it back to fetch the next page.
+ */
+@Data
+public class RequestCursor {
+    private static final String SEPARATOR = ",";
+
+    private final LocalDateTime creationTime;
+    private final Long id;
+
+    public static RequestCursor of(ItemRequestDto request) {
+        return new RequestCursor(request.getCreated(), request.getId());
+    }
+
+    public static RequestCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(SEPARATOR, -1);
+            if (parts.length != 2) {
+                throw IncorrectCursorException.getFromCursor(cursor);
+            }
+            return new RequestCursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw IncorrectCursorException.getFromCursor(cursor);
+        }
+    }
+
+    public String encode() {
+        String raw = creationTime + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
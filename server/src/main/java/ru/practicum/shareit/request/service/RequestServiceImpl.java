@@ -4,59 +4,95 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.RequestItemsVersionView;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.mapper.RequestDtoMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.storage.RequestRepository;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utills.ETags;
+import ru.practicum.shareit.utills.EntityResolver;
 
 import java.util.List;
 
-import static ru.practicum.shareit.request.service.RequestService.checkRequestExistsById;
-import static ru.practicum.shareit.request.service.RequestService.checkUserExistsById;
-
 @Service
+@Transactional
 public class RequestServiceImpl implements RequestService {
+    private static final int DEFAULT_FEED_SIZE = 10;
 
-    private final UserRepository userRepository;
     private final RequestRepository requestRepository;
+    private final ItemRepository itemRepository;
 
     private final RequestDtoMapper requestDtoMapper;
+    private final EntityResolver entityResolver;
 
     @Autowired
-    public RequestServiceImpl(UserRepository userRepository, RequestRepository requestRepository, RequestDtoMapper requestDtoMapper) {
-        this.userRepository = userRepository;
+    public RequestServiceImpl(RequestRepository requestRepository, ItemRepository itemRepository,
+                              RequestDtoMapper requestDtoMapper, EntityResolver entityResolver) {
+        this.itemRepository = itemRepository;
         this.requestRepository = requestRepository;
         this.requestDtoMapper = requestDtoMapper;
+        this.entityResolver = entityResolver;
     }
 
     @Override
     public ItemRequestDto createRequest(RequestDto requestDto, Long userId) {
-        checkUserExistsById(userRepository, userId);
+        User requestor = entityResolver.getUser(userId);
         ItemRequest saveRequest = requestDtoMapper.toRequest(requestDto);
-        saveRequest.setRequestor(userRepository.findById(userId).orElseThrow());
+        saveRequest.setRequestor(requestor);
         return requestDtoMapper.toRequestDto(requestRepository.save(saveRequest));
     }
 
     @Override
     public List<ItemRequestDto> getAllOwnRequests(Long userId) {
-        checkUserExistsById(userRepository, userId);
+        entityResolver.checkUserExists(userId);
         return requestDtoMapper.toListOfDto(requestRepository.findAllByRequestorId(userId));
     }
 
     @Override
     public List<ItemRequestDto> getAllRequests(Long userId, Integer from, Integer size) {
-        checkUserExistsById(userRepository, userId);
+        entityResolver.checkUserExists(userId);
         return getAllByParam(userId, from, size);
     }
 
+    @Override
+    public Slice<ItemRequestDto> getRequestFeed(Long userId, String cursor, Integer size) {
+        entityResolver.checkUserExists(userId);
+        Pageable pageable = PageRequest.of(0, (size != null) ? size : DEFAULT_FEED_SIZE);
+        Slice<ItemRequest> requests;
+        if (cursor == null || cursor.isBlank()) {
+            requests = requestRepository.findFeedByUserId(userId, pageable);
+        } else {
+            RequestCursor after = RequestCursor.decode(cursor);
+            requests = requestRepository.findFeedByUserIdAfter(userId, after.getCreationTime(), after.getId(),
+                    pageable);
+        }
+        List<ItemRequestDto> requestDtos = requestDtoMapper.toListOfDto(requests.getContent());
+        return new SliceImpl<>(requestDtos, pageable, requests.hasNext());
+    }
+
+    /**
+     * Requests never change after creation, so only their items can change the representation.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String getRequestEtag(Long requestId, Long userId) {
+        entityResolver.checkUserExists(userId);
+        entityResolver.getRequest(requestId);
+        RequestItemsVersionView items = itemRepository.findVersionByRequestId(requestId);
+        return ETags.of(requestId, items.getItemCount(), items.getItemVersions());
+    }
+
     @Override
     public ItemRequestDto getRequestById(Long requestId, Long userId) {
-        checkUserExistsById(userRepository, userId);
-        checkRequestExistsById(requestRepository, requestId);
-        return requestDtoMapper.toRequestDto(requestRepository.findById(requestId).orElseThrow());
+        entityResolver.getUser(userId);
+        return requestDtoMapper.toRequestDto(entityResolver.getRequest(requestId));
     }
 
     private List<ItemRequestDto> getAllByParam(Long userId, Integer from, Integer size) {
@@ -2,10 +2,14 @@ package ru.practicum.shareit.request.storage;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -18,4 +22,18 @@ public interface RequestRepository extends JpaRepository<ItemRequest, Long> {
 
     List<ItemRequest> findAllByRequestorIdOrderByCreationTimeDesc(Long requestorId);
 
+    @Query("select r from ItemRequest r join fetch r.requestor " +
+            "where r.requestor.id <> :userId " +
+            "order by r.creationTime desc, r.id desc")
+    Slice<ItemRequest> findFeedByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("select r from ItemRequest r join fetch r.requestor " +
+            "where r.requestor.id <> :userId " +
+            "and (r.creationTime < :creationTime or (r.creationTime = :creationTime and r.id < :id)) " +
+            "order by r.creationTime desc, r.id desc")
+    Slice<ItemRequest> findFeedByUserIdAfter(@Param("userId") Long userId,
+                                             @Param("creationTime") LocalDateTime creationTime,
+                                             @Param("id") Long id,
+                                             Pageable pageable);
+
 }
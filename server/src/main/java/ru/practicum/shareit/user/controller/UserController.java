@@ -1,14 +1,19 @@
 package ru.practicum.shareit.user.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UserCreationRequestDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserUpdateRequestDto;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utills.NdjsonWriter;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -17,6 +22,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserController {
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public UserDto addUser(@RequestBody UserCreationRequestDto userDto) {
@@ -43,6 +49,12 @@ public class UserController {
         return userService.getAllUsers();
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllUsers(HttpServletResponse response) throws IOException {
+        log.info("Received a GET request for the endpoint /users with NDJSON streaming");
+        userService.streamAllUsers(NdjsonWriter.of(response, objectMapper));
+    }
+
     @DeleteMapping("/{userId}")
     public void deleteUserById(@PathVariable Long userId) {
         log.info("Received a DELETE request for the endpoint /users/{userId} with userId_{}", userId);
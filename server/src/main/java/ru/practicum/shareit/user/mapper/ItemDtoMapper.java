@@ -2,19 +2,18 @@ package ru.practicum.shareit.user.mapper;
 
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.dto.ShortBookingDto;
-import ru.practicum.shareit.booking.mapper.BookingDtoMapper;
 import ru.practicum.shareit.booking.repository.BookingRepository;
-import ru.practicum.shareit.booking.repository.model.Booking;
+import ru.practicum.shareit.booking.repository.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryProjection;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.comment.Comment;
-import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.repository.comment.CommentRepository;
 import ru.practicum.shareit.request.exceptions.RequestNotFoundException;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.storage.RequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utills.EntityResolver;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -23,24 +22,24 @@ import java.util.stream.Collectors;
 
 @Component
 public class ItemDtoMapper {
-    private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final EntityResolver entityResolver;
     private final RequestRepository requestRepository;
-    private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemBookingSummaryProjection itemBookingSummaryProjection;
+    private final BookingRepository bookingRepository;
 
-    public ItemDtoMapper(ItemRepository itemRepository, UserRepository userRepository, RequestRepository repository, BookingRepository bookingRepository, CommentRepository commentRepository) {
-        this.itemRepository = itemRepository;
-        this.userRepository = userRepository;
+    public ItemDtoMapper(EntityResolver entityResolver, RequestRepository repository, CommentRepository commentRepository, ItemBookingSummaryProjection itemBookingSummaryProjection, BookingRepository bookingRepository) {
+        this.entityResolver = entityResolver;
         this.requestRepository = repository;
-        this.bookingRepository = bookingRepository;
         this.commentRepository = commentRepository;
+        this.itemBookingSummaryProjection = itemBookingSummaryProjection;
+        this.bookingRepository = bookingRepository;
     }
 
     public Item toItem(ItemCreationRequestDto itemDto, Long ownerId) {
         Item item = new Item();
 
-        User owner = userRepository.findById(ownerId).orElseThrow();
+        User owner = entityResolver.getUser(ownerId);
 
         item.setName(itemDto.getName());
         item.setDescription(itemDto.getDescription());
@@ -58,9 +57,9 @@ public class ItemDtoMapper {
 
 
     public Item toItem(ItemUpdateRequestDto itemDto, Long itemId, Long ownerId) {
-        Item item = itemRepository.findById(itemId).orElseThrow();
+        Item item = entityResolver.getItem(itemId);
 
-        User owner = userRepository.findById(ownerId).orElseThrow();
+        User owner = entityResolver.getUser(ownerId);
 
         itemDto.getName().ifPresent(item::setName);
         itemDto.getDescription().ifPresent(item::setDescription);
@@ -95,42 +94,21 @@ public class ItemDtoMapper {
     }
 
     public DetailedItemDto toDetailedItemDto(Item item, CommentDtoMapper commentDtoMapper) {
-        DetailedItemDto itemDto = new DetailedItemDto();
-
-        List<Comment> comments = commentRepository.findCommentsByItemId(item.getId());
-
-        itemDto.setId(item.getId());
-        itemDto.setName(item.getName());
-        itemDto.setDescription(item.getDescription());
-        itemDto.setAvailable(item.getAvailable());
-        itemDto.setComments(commentDtoMapper.toCommentDto(comments));
-
-        return itemDto;
+        List<Comment> comments = commentRepository.findByItemIdIn(List.of(item.getId()));
+        return toDetailedItemDto(item, commentDtoMapper.toCommentDto(comments));
     }
 
-    public DetailedItemDto toDetailedItemDto(Item item,
-                                             CommentDtoMapper commentDtoMapper,
-                                             BookingDtoMapper bookingDtoMapper) {
-
-        DetailedItemDto itemDto = toDetailedItemDto(item, commentDtoMapper);
-
-        LocalDateTime time = LocalDateTime.now();
-        itemDto.setLastBooking(getLastBooking(bookingDtoMapper, item.getId(), time));
-        itemDto.setNextBooking(getNextBooking(bookingDtoMapper, item.getId(), time));
-
-        return itemDto;
-    }
-
-    public DetailedItemDto toDetailedItemDtoForOwner(Item item,
-                                                     CommentDtoMapper commentDtoMapper,
-                                                     BookingDtoMapper bookingDtoMapper) {
-
-        DetailedItemDto itemDto = toDetailedItemDto(item, commentDtoMapper);
-
-        LocalDateTime time = LocalDateTime.now();
-        itemDto.setLastBooking(getLastBookingForOwner(bookingDtoMapper, item.getOwner().getId(), time));
-        itemDto.setNextBooking(getNextBookingForOwner(bookingDtoMapper, item.getOwner().getId(), time));
-
+    /**
+     * Reads the last and next bookings from the booking summary of the item, like item lists do.
+     * While no booking of the item has ended, the owner sees the started booking that ends first.
+     */
+    public DetailedItemDto toDetailedItemDtoForOwner(Item item, CommentDtoMapper commentDtoMapper) {
+        DetailedItemDto itemDto = toDetailedItemDto(List.of(item), commentDtoMapper).get(0);
+        if (itemDto.getLastBooking() == null) {
+            bookingRepository.findFirstByItemIdAndStartTimeBeforeOrderByEndTimeAsc(item.getId(), LocalDateTime.now())
+                    .ifPresent(booking -> itemDto.setLastBooking(
+                            toShortBookingDto(booking.getId(), booking.getBooker().getId())));
+        }
         return itemDto;
     }
 
@@ -140,66 +118,49 @@ public class ItemDtoMapper {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Loads the comments of all items with their authors in one query and the last and next bookings
+     * from the booking summaries of the items.
+     */
     public List<DetailedItemDto> toDetailedItemDto(Collection<Item> items,
-                                                   CommentDtoMapper commentDtoMapper,
-                                                   BookingDtoMapper bookingDtoMapper) {
+                                                   CommentDtoMapper commentDtoMapper) {
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        Map<Long, ItemBookingSummary> summaries = itemBookingSummaryProjection.find(itemIds, LocalDateTime.now());
+        Map<Long, List<CommentDto>> comments = commentRepository.findByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(commentDtoMapper::toCommentDto, Collectors.toList())));
+
         return items.stream()
-                .map(item -> toDetailedItemDto(item, commentDtoMapper, bookingDtoMapper))
+                .map(item -> {
+                    DetailedItemDto itemDto = toDetailedItemDto(item,
+                            comments.getOrDefault(item.getId(), Collections.emptyList()));
+                    ItemBookingSummary summary = summaries.get(item.getId());
+                    itemDto.setLastBooking(toShortBookingDto(summary.getLastBookingId(), summary.getLastBookerId()));
+                    itemDto.setNextBooking(toShortBookingDto(summary.getNextBookingId(), summary.getNextBookerId()));
+                    return itemDto;
+                })
                 .sorted(Comparator.comparing(DetailedItemDto::getId))
                 .collect(Collectors.toList());
     }
 
-    private ShortBookingDto getLastBookingForOwner(BookingDtoMapper bookingDtoMapper,
-                                                   Long ownerId, LocalDateTime time) {
-        List<Booking> bookings = bookingRepository.findAllByItemOwnerId(ownerId);
-
-        Optional<Booking> lastBooking = bookings.stream()
-                .filter(b -> b.getEndTime().isBefore(time))
-                .max(Comparator.comparing(Booking::getEndTime));
-
-
-        if (lastBooking.isEmpty()) {
-            Optional<Booking> booking = bookings.stream()
-                    .filter(b -> b.getStartTime().isBefore(time))
-                    .min(Comparator.comparing(Booking::getEndTime));
-            return booking.map(bookingDtoMapper::toShortBookingDto).orElse(null);
-        }
-
-
-        return lastBooking.map(bookingDtoMapper::toShortBookingDto).orElse(null);
-    }
-
-    private ShortBookingDto getNextBookingForOwner(BookingDtoMapper bookingDtoMapper,
-                                                   Long ownerId, LocalDateTime time) {
-        List<Booking> bookings = bookingRepository.findAllByItem_OwnerIdAndStatus(ownerId, Booking.Status.APPROVED);
-
-        Optional<Booking> bookingNext = bookings.stream().sorted(Comparator.comparing(Booking::getStartTime))
-                .filter(b -> b.getStartTime().isAfter(time))
-                .findFirst();
-
-        return bookingNext.isEmpty() ? null : bookingNext.stream().findFirst()
-                .map(bookingDtoMapper::toShortBookingDto).orElse(null);
-    }
-
-    private ShortBookingDto getLastBooking(BookingDtoMapper bookingDtoMapper,
-                                           Long itemId, LocalDateTime time) {
-        List<Booking> bookings = bookingRepository
-                .findAllByItemId(itemId);
+    private DetailedItemDto toDetailedItemDto(Item item, List<CommentDto> comments) {
+        DetailedItemDto itemDto = new DetailedItemDto();
 
-        Optional<Booking> lastBooking = bookings.stream()
-                .filter(b -> b.getEndTime().isBefore(time)).max(Comparator.comparing(Booking::getEndTime));
+        itemDto.setId(item.getId());
+        itemDto.setName(item.getName());
+        itemDto.setDescription(item.getDescription());
+        itemDto.setAvailable(item.getAvailable());
+        itemDto.setComments(comments);
 
-        return lastBooking.map(bookingDtoMapper::toShortBookingDto).orElse(null);
+        return itemDto;
     }
 
-    private ShortBookingDto getNextBooking(BookingDtoMapper bookingDtoMapper,
-                                           Long itemId, LocalDateTime time) {
-        List<Booking> bookings = bookingRepository.findAllByItemIdAndStatus(itemId, Booking.Status.APPROVED);
-
-        Optional<Booking> bookingNext = bookings.stream().sorted(Comparator.comparing(Booking::getStartTime))
-                .filter(b -> b.getStartTime().isAfter(time)).findFirst();
-
-        return bookingNext.isEmpty() ? null : bookingNext.stream().findFirst()
-                .map(bookingDtoMapper::toShortBookingDto).orElse(null);
+    private ShortBookingDto toShortBookingDto(Long bookingId, Long bookerId) {
+        return (bookingId == null) ? null : new ShortBookingDto(bookingId, bookerId);
     }
 }
@@ -3,18 +3,11 @@ package ru.practicum.shareit.user.service;
 import ru.practicum.shareit.user.dto.UserCreationRequestDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserUpdateRequestDto;
-import ru.practicum.shareit.user.exception.UserNotFoundException;
-import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
-    static void checkUserExistsById(UserRepository userRepository, Long userId) {
-        if (!userRepository.existsById(userId)) {
-            throw UserNotFoundException.getFromUserId(userId);
-        }
-    }
-
     UserDto addUser(UserCreationRequestDto userDto);
 
     UserDto updateUser(UserUpdateRequestDto userDto, Long userId);
@@ -23,5 +16,7 @@ public interface UserService {
 
     List<UserDto> getAllUsers();
 
+    void streamAllUsers(Consumer<UserDto> action);
+
     void deleteUserById(Long userId);
 }
@@ -10,10 +10,13 @@ import ru.practicum.shareit.user.dto.UserUpdateRequestDto;
 import ru.practicum.shareit.user.mapper.UserDtoMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utills.EntityResolver;
+import ru.practicum.shareit.utills.EntityStreams;
+import ru.practicum.shareit.utills.KnownIdFilter;
 
+import javax.persistence.EntityManager;
 import java.util.List;
-
-import static ru.practicum.shareit.user.service.UserService.checkUserExistsById;
+import java.util.function.Consumer;
 
 
 @Service
@@ -23,19 +26,23 @@ import static ru.practicum.shareit.user.service.UserService.checkUserExistsById;
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserDtoMapper userDtoMapper;
+    private final EntityManager entityManager;
+    private final EntityResolver entityResolver;
+    private final KnownIdFilter knownIdFilter;
 
 
     @Override
     public UserDto addUser(UserCreationRequestDto userDto) {
         User user = userDtoMapper.toUser(userDto);
         User addedUser = userRepository.save(user);
+        knownIdFilter.addUser(addedUser.getId());
         log.debug("User ID_{} added.", addedUser.getId());
         return userDtoMapper.toUserDto(addedUser);
     }
 
     @Override
     public UserDto updateUser(UserUpdateRequestDto userDto, Long userId) {
-        checkUserExistsById(userRepository, userId);
+        entityResolver.checkUserExists(userId);
         User user = userDtoMapper.toUser(userDto, userId);
         User updatedUser = userRepository.save(user);
         log.debug("User ID_{} updated.", updatedUser.getId());
@@ -45,7 +52,7 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional(readOnly = true)
     public UserDto getUserById(Long userId) {
-        checkUserExistsById(userRepository, userId);
+        entityResolver.checkUserExists(userId);
         User user = userRepository.getReferenceById(userId);
         log.debug("User ID_{} returned.", user.getId());
         return userDtoMapper.toUserDto(user);
@@ -59,10 +66,19 @@ public class UserServiceImpl implements UserService {
         return userDtoMapper.toUserDto(users);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllUsers(Consumer<UserDto> action) {
+        EntityStreams.forEach(userRepository.streamAll(), entityManager,
+                user -> action.accept(userDtoMapper.toUserDto(user)));
+        log.debug("All users streamed.");
+    }
+
     @Override
     public void deleteUserById(Long userId) {
-        checkUserExistsById(userRepository, userId);
+        entityResolver.checkUserExists(userId);
         log.debug("User ID_{} deleted.", userId);
         userRepository.deleteById(userId);
+        knownIdFilter.removeUser(userId);
     }
 }
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.utills;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over long ids with 4-bit counters instead of bits, so that ids can be removed as well
+ * as added. A negative answer is exact, a positive one is wrong with about the configured rate while
+ * the filter holds no more than the expected number of ids. A counter that reaches its maximum stays
+ * there, which only adds false positives. Safe for concurrent use.
+ */
+public final class CountingBloomFilter {
+    private static final int COUNTER_BITS = 4;
+    private static final int COUNTERS_PER_WORD = Long.SIZE / COUNTER_BITS;
+    private static final long COUNTER_MAX = (1L << COUNTER_BITS) - 1;
+
+    private final AtomicLongArray words;
+    private final long counterCount;
+    private final int hashCount;
+
+    public CountingBloomFilter(long expectedIds, double falsePositiveRate) {
+        double ln2 = Math.log(2);
+        long optimalCounters = (long) Math.ceil(-expectedIds * Math.log(falsePositiveRate) / (ln2 * ln2));
+        int wordCount = Math.toIntExact(Math.max(1, (optimalCounters + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD));
+        this.words = new AtomicLongArray(wordCount);
+        this.counterCount = (long) wordCount * COUNTERS_PER_WORD;
+        this.hashCount = (int) Math.max(1, Math.round((double) counterCount / Math.max(1, expectedIds) * ln2));
+    }
+
+    public void add(long id) {
+        long hash = mix(id);
+        long step = mix(hash);
+        for (int i = 0; i < hashCount; i++) {
+            update(Math.floorMod(hash + i * step, counterCount), 1);
+        }
+    }
+
+    public void remove(long id) {
+        long hash = mix(id);
+        long step = mix(hash);
+        for (int i = 0; i < hashCount; i++) {
+            update(Math.floorMod(hash + i * step, counterCount), -1);
+        }
+    }
+
+    public boolean mightContain(long id) {
+        long hash = mix(id);
+        long step = mix(hash);
+        for (int i = 0; i < hashCount; i++) {
+            if (counter(Math.floorMod(hash + i * step, counterCount)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long counter(long index) {
+        long word = words.get((int) (index / COUNTERS_PER_WORD));
+        return (word >>> shift(index)) & COUNTER_MAX;
+    }
+
+    private void update(long index, int delta) {
+        int wordIndex = (int) (index / COUNTERS_PER_WORD);
+        int shift = shift(index);
+        long word;
+        long updated;
+        do {
+            word = words.get(wordIndex);
+            long counter = (word >>> shift) & COUNTER_MAX;
+            if (counter == COUNTER_MAX || (delta < 0 && counter == 0)) {
+                return;
+            }
+            updated = word + ((long) delta << shift);
+        } while (!words.compareAndSet(wordIndex, word, updated));
+    }
+
+    private static int shift(long index) {
+        return (int) (index % COUNTERS_PER_WORD) * COUNTER_BITS;
+    }
+
+    /**
+     * SplitMix64 finalizer, spreads sequential ids over all counters.
+     */
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.utills;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+public final class ETags {
+    private static final String PART_SEPARATOR = ":";
+
+    private ETags() {
+    }
+
+    /**
+     * Strong ETag over the ids and versions a representation is built from, so that it can be
+     * compared before the representation itself is loaded.
+     */
+    public static String of(Object... parts) {
+        String joined = Arrays.stream(parts)
+                .map(String::valueOf)
+                .collect(Collectors.joining(PART_SEPARATOR));
+        return "\"" + DigestUtils.md5DigestAsHex(joined.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
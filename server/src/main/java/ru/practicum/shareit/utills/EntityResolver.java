@@ -0,0 +1,74 @@
+package ru.practicum.shareit.utills;
+
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.exception.BookingNotFoundException;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.model.Booking;
+import ru.practicum.shareit.item.exception.ItemNotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.exceptions.RequestNotFoundException;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.storage.RequestRepository;
+import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+/**
+ * Loads entities by id or throws the not found exception of their type. Inside a transaction the
+ * persistence context keeps every loaded entity, so resolving the same id again, here or through
+ * {@code findById} and {@code getReferenceById}, runs no more queries. User and item ids unknown to
+ * {@link KnownIdFilter} are rejected without a query.
+ */
+@Component
+public class EntityResolver {
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final RequestRepository requestRepository;
+    private final BookingRepository bookingRepository;
+    private final KnownIdFilter knownIdFilter;
+
+    public EntityResolver(UserRepository userRepository,
+                          ItemRepository itemRepository,
+                          RequestRepository requestRepository,
+                          BookingRepository bookingRepository,
+                          KnownIdFilter knownIdFilter) {
+        this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.requestRepository = requestRepository;
+        this.bookingRepository = bookingRepository;
+        this.knownIdFilter = knownIdFilter;
+    }
+
+    public void checkUserExists(Long userId) {
+        if (!knownIdFilter.mightHaveUser(userId) || !userRepository.existsById(userId)) {
+            throw UserNotFoundException.getFromUserId(userId);
+        }
+    }
+
+    public User getUser(Long userId) {
+        if (!knownIdFilter.mightHaveUser(userId)) {
+            throw UserNotFoundException.getFromUserId(userId);
+        }
+        return userRepository.findById(userId)
+                .orElseThrow(() -> UserNotFoundException.getFromUserId(userId));
+    }
+
+    public Item getItem(Long itemId) {
+        if (!knownIdFilter.mightHaveItem(itemId)) {
+            throw ItemNotFoundException.getFromItemId(itemId);
+        }
+        return itemRepository.findById(itemId)
+                .orElseThrow(() -> ItemNotFoundException.getFromItemId(itemId));
+    }
+
+    public ItemRequest getRequest(Long requestId) {
+        return requestRepository.findById(requestId)
+                .orElseThrow(() -> RequestNotFoundException.getFromRequestId(requestId));
+    }
+
+    public Booking getBooking(Long bookingId) {
+        return bookingRepository.findById(bookingId)
+                .orElseThrow(() -> BookingNotFoundException.getFromBookingId(bookingId));
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.utills;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public final class EntityStreams {
+    private static final int CLEAR_INTERVAL = 500;
+
+    private EntityStreams() {
+    }
+
+    public static <T> void forEach(Stream<T> entities, EntityManager entityManager, Consumer<T> action) {
+        try (entities) {
+            Iterator<T> iterator = entities.iterator();
+            for (int row = 1; iterator.hasNext(); row++) {
+                action.accept(iterator.next());
+                if (row % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Hands the entities over in lists of up to 500, so that each list can be enriched with batch queries.
+     */
+    public static <T> void forEachChunk(Stream<T> entities, EntityManager entityManager, Consumer<List<T>> action) {
+        try (entities) {
+            Iterator<T> iterator = entities.iterator();
+            List<T> chunk = new ArrayList<>(CLEAR_INTERVAL);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == CLEAR_INTERVAL || !iterator.hasNext()) {
+                    action.accept(chunk);
+                    chunk = new ArrayList<>(CLEAR_INTERVAL);
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+}
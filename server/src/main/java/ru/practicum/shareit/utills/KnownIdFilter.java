@@ -0,0 +1,75 @@
+package ru.practicum.shareit.utills;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+
+import static ru.practicum.shareit.utills.TransactionHooks.runAfterCommit;
+
+/**
+ * In-memory filters over the ids of existing users and items. An id the filter has never seen
+ * definitely does not exist, so lookups of such ids are rejected without a query. The filters are
+ * loaded at startup and must see every insert and delete, so users and items may only be added
+ * and removed through this server instance.
+ */
+@Component
+@Slf4j
+public class KnownIdFilter {
+    private final JdbcTemplate jdbcTemplate;
+    private final CountingBloomFilter users;
+    private final CountingBloomFilter items;
+
+    public KnownIdFilter(JdbcTemplate jdbcTemplate,
+                         @Value("${shareit.known-ids.expected-ids:1000000}") long expectedIds,
+                         @Value("${shareit.known-ids.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.users = new CountingBloomFilter(expectedIds, falsePositiveRate);
+        this.items = new CountingBloomFilter(expectedIds, falsePositiveRate);
+    }
+
+    @PostConstruct
+    public void load() {
+        long userCount = load("select user_id from users", users);
+        long itemCount = load("select item_id from items", items);
+        log.info("Known id filters loaded, {} users and {} items.", userCount, itemCount);
+    }
+
+    public boolean mightHaveUser(Long userId) {
+        return userId != null && users.mightContain(userId);
+    }
+
+    public boolean mightHaveItem(Long itemId) {
+        return itemId != null && items.mightContain(itemId);
+    }
+
+    /**
+     * Added at once, before the insert commits: if it rolls back, the id only becomes a false positive.
+     */
+    public void addUser(Long userId) {
+        users.add(userId);
+    }
+
+    public void addItem(Long itemId) {
+        items.add(itemId);
+    }
+
+    /**
+     * Removed only after the delete commits, so that an existing id is never reported absent.
+     */
+    public void removeUser(Long userId) {
+        runAfterCommit(() -> users.remove(userId));
+    }
+
+    private long load(String sql, CountingBloomFilter filter) {
+        long[] count = new long[1];
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+            filter.add(rs.getLong(1));
+            count[0]++;
+        });
+        return count[0];
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.utills;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.MediaType;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+public class NdjsonWriter<T> implements Consumer<T> {
+    private static final byte LINE_SEPARATOR = '\n';
+
+    private final ObjectWriter writer;
+    private final OutputStream out;
+
+    private NdjsonWriter(ObjectMapper objectMapper, OutputStream out) {
+        this.writer = objectMapper.writer();
+        this.out = out;
+    }
+
+    public static <T> NdjsonWriter<T> of(HttpServletResponse response, ObjectMapper objectMapper) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        return new NdjsonWriter<>(objectMapper, response.getOutputStream());
+    }
+
+    @Override
+    public void accept(T value) {
+        try {
+            out.write(writer.writeValueAsBytes(value));
+            out.write(LINE_SEPARATOR);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -2,5 +2,6 @@ package ru.practicum.shareit.utills;
 
 public class UserHttpHeaders extends org.springframework.http.HttpHeaders {
     public static final String USER_ID = "X-Sharer-User-Id";
+    public static final String NEXT_CURSOR = "X-Next-Cursor";
 
 }
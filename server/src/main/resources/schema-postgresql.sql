@@ -0,0 +1,10 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS items_available_name_trgm_idx
+    ON items USING gin (lower(name) gin_trgm_ops) WHERE is_available;
+
+CREATE INDEX IF NOT EXISTS items_available_description_trgm_idx
+    ON items USING gin (lower(description) gin_trgm_ops) WHERE is_available;
+
+CREATE INDEX IF NOT EXISTS items_available_search_terms_trgm_idx
+    ON items USING gin (search_terms gin_trgm_ops) WHERE is_available;
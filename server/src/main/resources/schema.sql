@@ -1,3 +1,4 @@
+drop table if exists item_booking_summary;
 drop table if exists comments;
 drop table if exists bookings;
 drop table if exists items;
@@ -8,7 +9,8 @@ CREATE TABLE IF NOT EXISTS users
 (
     user_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     name    VARCHAR(50)         NOT NULL,
-    email   VARCHAR(100) UNIQUE NOT NULL
+    email   VARCHAR(100) UNIQUE NOT NULL,
+    version BIGINT              NOT NULL DEFAULT 0
 );
 
 CREATE TABLE IF NOT EXISTS requests
@@ -19,6 +21,8 @@ CREATE TABLE IF NOT EXISTS requests
     requester_id  BIGINT REFERENCES users (user_id)
 );
 
+CREATE INDEX IF NOT EXISTS requests_creation_time_idx ON requests (creation_time DESC, request_id DESC);
+
 CREATE TABLE IF NOT EXISTS items
 (
     item_id      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -26,9 +30,13 @@ CREATE TABLE IF NOT EXISTS items
     description  VARCHAR(1000) NOT NULL,
     is_available BOOLEAN       NOT NULL,
     owner_id     BIGINT REFERENCES users (user_id),
-    request_id   BIGINT REFERENCES requests (request_id)
+    request_id   BIGINT REFERENCES requests (request_id),
+    search_terms VARCHAR(2400),
+    version      BIGINT        NOT NULL DEFAULT 0
 );
 
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
+
 CREATE TABLE IF NOT EXISTS bookings
 (
     booking_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -36,9 +44,16 @@ CREATE TABLE IF NOT EXISTS bookings
     end_time   TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     item_id    BIGINT REFERENCES items (item_id),
     booker_id  BIGINT REFERENCES users (user_id),
-    status     VARCHAR(50)
+    status     VARCHAR(50),
+    version    BIGINT                      NOT NULL DEFAULT 0
 );
 
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_time DESC, booking_id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, start_time DESC, booking_id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_item_end_idx ON bookings (item_id, end_time DESC, booking_id DESC);
+
 CREATE TABLE IF NOT EXISTS comments
 (
     comment_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -46,4 +61,18 @@ CREATE TABLE IF NOT EXISTS comments
     author_id  BIGINT REFERENCES users (user_id),
     item_id    BIGINT REFERENCES items (item_id),
     created    TIMESTAMP WITHOUT TIME ZONE NOT NULL
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS comments_item_idx ON comments (item_id);
+
+CREATE TABLE IF NOT EXISTS item_booking_summary
+(
+    item_id         BIGINT PRIMARY KEY REFERENCES items (item_id) ON DELETE CASCADE,
+    last_booking_id BIGINT,
+    last_booker_id  BIGINT,
+    next_booking_id BIGINT,
+    next_booker_id  BIGINT,
+    valid_until     TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS item_booking_summary_valid_until_idx ON item_booking_summary (valid_until);
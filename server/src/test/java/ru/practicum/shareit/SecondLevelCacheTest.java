@@ -0,0 +1,128 @@
+package ru.practicum.shareit;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.storage.RequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utills.TestData;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs lookups with the l2cache profile and checks the hits and misses of the cache regions. Every
+ * repository call runs in a transaction and a persistence context of its own, so only the first
+ * lookup of an entity may reach the database.
+ */
+@SpringBootTest
+@ActiveProfiles({"test", "l2cache"})
+class SecondLevelCacheTest {
+    private static final int LOOKUPS = 3;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private RequestRepository requestRepository;
+
+    @Test
+    void userLookupsAfterTheFirstHitTheCache() {
+        Long userId = testData.addUser();
+        Statistics statistics = resetCache();
+
+        for (int i = 0; i < LOOKUPS; i++) {
+            userRepository.findById(userId).orElseThrow();
+        }
+
+        EntityStatistics users = statistics.getEntityStatistics(User.class.getName());
+        assertEquals(1, users.getCacheMissCount());
+        assertEquals(1, users.getCachePutCount());
+        assertEquals(LOOKUPS - 1, users.getCacheHitCount());
+    }
+
+    @Test
+    void itemLookupsAfterTheFirstHitTheCache() {
+        Long itemId = testData.addItem(testData.addUser());
+        Statistics statistics = resetCache();
+
+        for (int i = 0; i < LOOKUPS; i++) {
+            itemRepository.findById(itemId).orElseThrow();
+        }
+
+        EntityStatistics items = statistics.getEntityStatistics(Item.class.getName());
+        assertEquals(1, items.getCacheMissCount());
+        assertEquals(1, items.getCachePutCount());
+        assertEquals(LOOKUPS - 1, items.getCacheHitCount());
+    }
+
+    @Test
+    void ownerItemListsAfterTheFirstHitTheQueryCache() {
+        Long ownerId = testData.addUser();
+        testData.addItem(ownerId);
+        testData.addItem(ownerId);
+        Statistics statistics = resetCache();
+
+        for (int i = 0; i < LOOKUPS; i++) {
+            assertEquals(2, itemRepository.findByOwner_Id(ownerId).size());
+        }
+
+        assertEquals(1, statistics.getQueryCacheMissCount());
+        assertEquals(LOOKUPS - 1, statistics.getQueryCacheHitCount());
+        assertEquals(2 * (LOOKUPS - 1), statistics.getEntityStatistics(Item.class.getName()).getCacheHitCount());
+    }
+
+    @Test
+    void requestLookupsAfterTheFirstHitTheCache() {
+        Long requestId = testData.addRequest(testData.addUser());
+        Statistics statistics = resetCache();
+
+        for (int i = 0; i < LOOKUPS; i++) {
+            requestRepository.findById(requestId).orElseThrow();
+        }
+
+        EntityStatistics requests = statistics.getEntityStatistics(ItemRequest.class.getName());
+        assertEquals(1, requests.getCacheMissCount());
+        assertEquals(1, requests.getCachePutCount());
+        assertEquals(LOOKUPS - 1, requests.getCacheHitCount());
+    }
+
+    @Test
+    void requestItemListsAfterTheFirstHitTheQueryCache() {
+        Long requestId = testData.addRequest(testData.addUser());
+        Long ownerId = testData.addUser();
+        testData.addItem(ownerId, requestId);
+        testData.addItem(ownerId, requestId);
+        Statistics statistics = resetCache();
+
+        for (int i = 0; i < LOOKUPS; i++) {
+            assertEquals(2, itemRepository.findAllByRequestIdIn(List.of(requestId)).size());
+        }
+
+        assertEquals(1, statistics.getQueryCacheMissCount());
+        assertEquals(LOOKUPS - 1, statistics.getQueryCacheHitCount());
+    }
+
+    private Statistics resetCache() {
+        entityManagerFactory.getCache().unwrap(Cache.class).evictAllRegions();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
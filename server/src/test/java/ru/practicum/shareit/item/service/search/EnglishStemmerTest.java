@@ -0,0 +1,84 @@
+package ru.practicum.shareit.item.service.search;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Words and stems from the examples and the sample vocabulary of the Porter algorithm.
+ */
+class EnglishStemmerTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "caresses, caress",
+            "ponies, poni",
+            "ties, ti",
+            "caress, caress",
+            "cats, cat",
+            "feed, feed",
+            "agreed, agre",
+            "plastered, plaster",
+            "bled, bled",
+            "motoring, motor",
+            "sing, sing",
+            "conflated, conflat",
+            "troubled, troubl",
+            "sized, size",
+            "hopping, hop",
+            "tanned, tan",
+            "falling, fall",
+            "hissing, hiss",
+            "fizzed, fizz",
+            "failing, fail",
+            "filing, file",
+            "happy, happi",
+            "sky, sky",
+            "relational, relat",
+            "conditional, condit",
+            "rational, ration",
+            "generalizations, gener",
+            "oscillators, oscil",
+            "abandoned, abandon",
+            "abandonment, abandon",
+            "abase, abas",
+            "abatement, abat",
+            "abbey, abbei",
+            "abilities, abil",
+            "ability, abil",
+            "able, abl",
+            "abruptly, abruptli",
+            "absence, absenc",
+            "absolutely, absolut",
+            "absorbed, absorb",
+            "triplicate, triplic",
+            "formative, form",
+            "electrical, electr",
+            "hopeful, hope",
+            "goodness, good",
+            "revival, reviv",
+            "allowance, allow",
+            "inference, infer",
+            "airliner, airlin",
+            "gyroscopic, gyroscop",
+            "adjustable, adjust",
+            "defensible, defens",
+            "irritant, irrit",
+            "replacement, replac",
+            "adjustment, adjust",
+            "dependent, depend",
+            "adoption, adopt",
+            "communism, commun",
+            "activate, activ",
+            "effective, effect",
+            "bowdlerize, bowdler",
+            "probate, probat",
+            "rate, rate",
+            "cease, ceas",
+            "roll, roll"
+    })
+    void stem(String word, String expected) {
+        assertEquals(expected, EnglishStemmer.stem(word));
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.item.service.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.search.ItemSearchCache.SearchMode;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemSearchCacheTest {
+    private final ItemSearchCache cache = new ItemSearchCache(100, new SimpleMeterRegistry());
+
+    @Test
+    void itemLeavingQueryResultsEvictsAllPagesOfTheQuery() {
+        Item first = item(1L, "Drill", true);
+        Item second = item(2L, "Hammer drill", true);
+        AtomicInteger searches = new AtomicInteger();
+        cache.get(SearchMode.PLAIN, "drill", 0, 1, counting(searches, first));
+        cache.get(SearchMode.PLAIN, "drill", 1, 1, counting(searches, second));
+
+        cache.evict(first, item(1L, "Drill", false));
+        cache.get(SearchMode.PLAIN, "drill", 1, 1, counting(searches, second));
+
+        assertEquals(3, searches.get());
+    }
+
+    @Test
+    void unrelatedChangeKeepsCachedPages() {
+        Item first = item(1L, "Drill", true);
+        Item other = item(3L, "Ladder", true);
+        AtomicInteger searches = new AtomicInteger();
+        cache.get(SearchMode.PLAIN, "drill", 0, 1, counting(searches, first));
+
+        cache.evict(other, item(3L, "Step ladder", true));
+        cache.get(SearchMode.PLAIN, "drill", 0, 1, counting(searches, first));
+
+        assertEquals(1, searches.get());
+    }
+
+    private static Supplier<List<ItemDto>> counting(AtomicInteger searches, Item item) {
+        return () -> {
+            searches.incrementAndGet();
+            return List.of(ItemDto.builder()
+                    .id(item.getId())
+                    .name(item.getName())
+                    .description(item.getDescription())
+                    .available(item.getAvailable())
+                    .build());
+        };
+    }
+
+    private static Item item(Long id, String name, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(name + " for rent")
+                .available(available)
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.item.service.search;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Words and stems from the Snowball sample vocabulary for Russian.
+ */
+class RussianStemmerTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "вавиловка, вавиловк",
+            "вагон, вагон",
+            "вагона, вагон",
+            "вагоне, вагон",
+            "вагонов, вагон",
+            "вагоном, вагон",
+            "вагоны, вагон",
+            "важная, важн",
+            "важнее, важн",
+            "важнейшие, важн",
+            "важнейшими, важн",
+            "важничаешь, важнича",
+            "важно, важн",
+            "важного, важн",
+            "важное, важн",
+            "важной, важн",
+            "важном, важн",
+            "важному, важн",
+            "важную, важн",
+            "важный, важн",
+            "важным, важн",
+            "важных, важн",
+            "вазах, ваз",
+            "вазы, ваз",
+            "вакса, вакс",
+            "вал, вал",
+            "валандался, валанда",
+            "валентина, валентин",
+            "валерьяновых, валерьянов",
+            "валетами, валет",
+            "вали, вал",
+            "валил, вал",
+            "валился, вал",
+            "валится, вал",
+            "валов, вал",
+            "валы, вал",
+            "валяется, валя",
+            "валялась, валя",
+            "валялись, валя",
+            "валялось, валя",
+            "валялся, валя",
+            "валять, валя",
+            "валяются, валя",
+            "вам, вам",
+            "вами, вам"
+    })
+    void stem(String word, String expected) {
+        assertEquals(expected, RussianStemmer.stem(word));
+    }
+}
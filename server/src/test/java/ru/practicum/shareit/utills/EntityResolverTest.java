@@ -0,0 +1,151 @@
+package ru.practicum.shareit.utills;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingCreationRequestDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.RequestCommentDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.comment.Comment;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.comment.CommentRepository;
+import ru.practicum.shareit.item.service.comment.CommentService;
+import ru.practicum.shareit.request.mapper.RequestDtoMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.storage.RequestRepository;
+import ru.practicum.shareit.user.mapper.CommentDtoMapper;
+import ru.practicum.shareit.user.mapper.ItemDtoMapper;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.time.LocalDateTime.now;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Counts the statements Hibernate sends for the hot write paths and the batch mappers. Every entity
+ * is resolved once per transaction, and the mappers load what they need for all entities at once.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "ru.practicum.shareit.utills.SqlStatementCounter")
+@ActiveProfiles("test")
+class EntityResolverTest {
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private CommentService commentService;
+    @Autowired
+    private EntityResolver entityResolver;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private RequestRepository requestRepository;
+    @Autowired
+    private ItemDtoMapper itemDtoMapper;
+    @Autowired
+    private CommentDtoMapper commentDtoMapper;
+    @Autowired
+    private RequestDtoMapper requestDtoMapper;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void addBookingLoadsBookerAndItemOnce() {
+        Long ownerId = testData.addUser();
+        Long bookerId = testData.addUser();
+        Long itemId = testData.addItem(ownerId);
+        BookingCreationRequestDto bookingDto = new BookingCreationRequestDto(itemId,
+                now().plusDays(1), now().plusDays(2));
+
+        SqlStatementCounter.reset();
+        bookingService.addBooking(bookingDto, bookerId);
+
+        // The booker, the item with its owner, the booking intervals of the item and the insert.
+        assertEquals(4, SqlStatementCounter.count());
+    }
+
+    @Test
+    void addCommentLoadsAuthorAndItemOnce() {
+        Long ownerId = testData.addUser();
+        Long authorId = testData.addUser();
+        Long itemId = testData.addItem(ownerId);
+        addPastBooking(itemId, authorId);
+
+        SqlStatementCounter.reset();
+        commentService.addComment(new RequestCommentDto("Works fine"), authorId, itemId);
+
+        // The author, the item with its owner, the past booking check and the insert.
+        assertEquals(4, SqlStatementCounter.count());
+    }
+
+    @Test
+    void itemMapperLoadsSummariesAndCommentsOfAllItemsAtOnce() {
+        Long ownerId = testData.addUser();
+        Long authorId = testData.addUser();
+        List<Long> itemIds = IntStream.range(0, 3)
+                .mapToObj(i -> testData.addItem(ownerId))
+                .collect(Collectors.toList());
+        itemIds.forEach(itemId -> addComment(itemId, authorId));
+
+        int statements = transactionTemplate.execute(status -> {
+            List<Item> items = itemRepository.findAllById(itemIds);
+            SqlStatementCounter.reset();
+            itemDtoMapper.toDetailedItemDto(items, commentDtoMapper);
+            return SqlStatementCounter.count();
+        });
+
+        // The booking summaries of the items and their comments with the authors.
+        assertEquals(2, statements);
+    }
+
+    @Test
+    void requestMapperLoadsItemsOfAllRequestsAtOnce() {
+        Long requestorId = testData.addUser();
+        Long ownerId = testData.addUser();
+        List<Long> requestIds = IntStream.range(0, 3)
+                .mapToObj(i -> testData.addRequest(requestorId))
+                .collect(Collectors.toList());
+        requestIds.forEach(requestId -> testData.addItem(ownerId, requestId));
+
+        int statements = transactionTemplate.execute(status -> {
+            List<ItemRequest> requests = requestRepository.findAllById(requestIds);
+            SqlStatementCounter.reset();
+            requestDtoMapper.toListOfDto(requests);
+            return SqlStatementCounter.count();
+        });
+
+        // The items of all requests with their owners.
+        assertEquals(1, statements);
+    }
+
+    private void addPastBooking(Long itemId, Long bookerId) {
+        transactionTemplate.executeWithoutResult(status -> bookingRepository.save(Booking.builder()
+                .startTime(now().minusDays(2))
+                .endTime(now().minusDays(1))
+                .item(entityResolver.getItem(itemId))
+                .booker(entityResolver.getUser(bookerId))
+                .status(Booking.Status.APPROVED)
+                .build()));
+    }
+
+    private void addComment(Long itemId, Long authorId) {
+        transactionTemplate.executeWithoutResult(status -> commentRepository.save(Comment.builder()
+                .text("Works fine")
+                .item(entityResolver.getItem(itemId))
+                .author(entityResolver.getUser(authorId))
+                .created(now())
+                .build()));
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.utills;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread, so that scheduled jobs running
+ * meanwhile do not disturb the counts of a test. Statements sent through JdbcTemplate are not seen.
+ */
+public class SqlStatementCounter implements StatementInspector {
+    private static final ThreadLocal<Integer> COUNT = ThreadLocal.withInitial(() -> 0);
+
+    public static void reset() {
+        COUNT.set(0);
+    }
+
+    public static int count() {
+        return COUNT.get();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.set(COUNT.get() + 1);
+        return sql;
+    }
+}
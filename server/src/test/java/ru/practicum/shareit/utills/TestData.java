@@ -0,0 +1,49 @@
+package ru.practicum.shareit.utills;
+
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemCreationRequestDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.service.RequestService;
+import ru.practicum.shareit.user.dto.UserCreationRequestDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adds users, items and requests through the services for the tests. The number is shared by all
+ * test contexts, so every user gets an e-mail of its own.
+ */
+@Component
+public class TestData {
+    private static final AtomicInteger USER_NUMBER = new AtomicInteger();
+
+    private final UserService userService;
+    private final ItemService itemService;
+    private final RequestService requestService;
+
+    public TestData(UserService userService, ItemService itemService, RequestService requestService) {
+        this.userService = userService;
+        this.itemService = itemService;
+        this.requestService = requestService;
+    }
+
+    public Long addUser() {
+        int number = USER_NUMBER.incrementAndGet();
+        return userService.addUser(new UserCreationRequestDto("User " + number,
+                "user-" + number + "@example.com")).getId();
+    }
+
+    public Long addItem(Long ownerId) {
+        return addItem(ownerId, null);
+    }
+
+    public Long addItem(Long ownerId, Long requestId) {
+        return itemService.addItem(new ItemCreationRequestDto("Drill", "Cordless drill", true, requestId),
+                ownerId).getId();
+    }
+
+    public Long addRequest(Long requestorId) {
+        return requestService.createRequest(new RequestDto("Need a drill"), requestorId).getId();
+    }
+}